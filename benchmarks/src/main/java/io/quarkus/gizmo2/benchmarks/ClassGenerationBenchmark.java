@@ -0,0 +1,82 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.gizmo2.Gizmo;
+import io.quarkus.gizmo2.LambdaStrategy;
+
+/**
+ * Throughput of whole-class generation through {@link Gizmo#class_} and {@link Gizmo#interface_},
+ * which covers the builder callbacks, {@code BlockCreatorImpl.writeCode} and stack map computation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClassGenerationBenchmark {
+
+    @Param({ "OPTIMIZED", "CLASSIC", "ANONYMOUS_CLASS" })
+    LambdaStrategy lambdaStrategy;
+
+    @Param({ "500" })
+    int staticInitializerFields;
+
+    @Param({ "12" })
+    int nestingDepth;
+
+    @Param({ "100" })
+    int lambdaCount;
+
+    Workloads.CountingOutput output;
+    Gizmo gizmo;
+
+    @Setup
+    public void setup() {
+        output = new Workloads.CountingOutput();
+        gizmo = Gizmo.create(output).withLambdaStrategy(lambdaStrategy);
+    }
+
+    @Benchmark
+    public long simpleClass() {
+        Workloads.simpleClass(gizmo, "bench.SimpleClass");
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long simpleInterface() {
+        Workloads.simpleInterface(gizmo, "bench.SimpleInterface", 10);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long largeStaticInitializer() {
+        Workloads.largeStaticInitializer(gizmo, "bench.LargeStaticInit", staticInitializerFields);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long deepNesting() {
+        Workloads.deepNesting(gizmo, "bench.DeepNesting", nestingDepth);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long manyLambdas() {
+        Workloads.manyLambdas(gizmo, "bench.ManyLambdas", lambdaCount);
+        return output.bytes;
+    }
+}
@@ -0,0 +1,47 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.gizmo2.Gizmo;
+
+/**
+ * Throughput of generating {@code equals}, {@code hashCode} and {@code toString} for value classes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EqualsHashCodeToStringBenchmark {
+
+    @Param({ "3", "20", "100" })
+    int fieldCount;
+
+    Workloads.CountingOutput output;
+    Gizmo gizmo;
+
+    @Setup
+    public void setup() {
+        output = new Workloads.CountingOutput();
+        gizmo = Gizmo.create(output);
+    }
+
+    @Benchmark
+    public long valueClass() {
+        Workloads.valueClass(gizmo, "bench.ValueClass", fieldCount);
+        return output.bytes;
+    }
+}
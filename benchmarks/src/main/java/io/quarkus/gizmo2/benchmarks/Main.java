@@ -0,0 +1,28 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The benchmark launcher.
+ * Runs the selected benchmarks (all of them by default), reporting throughput
+ * along with the allocation rate and GC counts of the {@linkplain GCProfiler GC profiler}.
+ * Any regular JMH command line option may be given, for example {@code -f 1 SwitchBenchmark}.
+ */
+public final class Main {
+    private Main() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
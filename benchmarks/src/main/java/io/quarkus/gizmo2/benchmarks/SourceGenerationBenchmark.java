@@ -0,0 +1,69 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.gizmo2.Gizmo;
+
+/**
+ * The cost of source generation, measured by running the same workloads with source generation
+ * switched off and on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SourceGenerationBenchmark {
+
+    @Param({ "false", "true" })
+    boolean sourceGeneration;
+
+    Workloads.CountingOutput output;
+    Gizmo gizmo;
+    List<String> keys;
+
+    @Setup
+    public void setup() {
+        output = new Workloads.CountingOutput();
+        gizmo = Gizmo.create(output).withSourceGeneration(sourceGeneration);
+        keys = Workloads.keys(100);
+    }
+
+    @Benchmark
+    public long simpleClass() {
+        Workloads.simpleClass(gizmo, "bench.SimpleClass");
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long deepNesting() {
+        Workloads.deepNesting(gizmo, "bench.DeepNesting", 8);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long stringSwitch() {
+        Workloads.stringSwitch(gizmo, "bench.StringSwitch", keys);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long valueClass() {
+        Workloads.valueClass(gizmo, "bench.ValueClass", 20);
+        return output.bytes;
+    }
+}
@@ -0,0 +1,86 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.gizmo2.impl.StackMapBuilder;
+
+/**
+ * Throughput of the {@link StackMapBuilder} state tracking operations which are performed for every
+ * emitted item and every nested block.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StackMapBuilderBenchmark {
+    private static final ClassDesc[] TYPES = {
+            CD_int, CD_String, CD_long, CD_Object, CD_double, CD_List, CD_boolean, CD_Map,
+    };
+
+    @Param({ "4", "64", "256" })
+    int locals;
+
+    StackMapBuilder smb;
+    int firstFree;
+
+    @Setup
+    public void setup() {
+        smb = new StackMapBuilder();
+        int slot = 0;
+        for (int i = 0; i < locals; i++) {
+            ClassDesc type = TYPES[i % TYPES.length];
+            smb.store(slot, type);
+            slot += type.equals(CD_long) || type.equals(CD_double) ? 2 : 1;
+        }
+        firstFree = slot;
+    }
+
+    /**
+     * A nested block: save, push and pop some values, and restore.
+     */
+    @Benchmark
+    public Object saveRestore() {
+        StackMapBuilder smb = this.smb;
+        StackMapBuilder.Saved saved = smb.save();
+        smb.push(CD_String);
+        smb.push(CD_int);
+        smb.pop();
+        smb.pop();
+        smb.restore(saved);
+        return saved;
+    }
+
+    /**
+     * A sequence of local variable stores and loads as emitted for straight-line code.
+     */
+    @Benchmark
+    public Object storeLoad() {
+        StackMapBuilder smb = this.smb;
+        int firstFree = this.firstFree;
+        Object last = null;
+        for (int i = 0; i < 16; i++) {
+            smb.push(CD_String);
+            smb.pop();
+            smb.store(firstFree + i, CD_String);
+            last = smb.load(firstFree + i);
+        }
+        return last;
+    }
+}
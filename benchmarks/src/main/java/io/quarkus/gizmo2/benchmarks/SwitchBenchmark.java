@@ -0,0 +1,87 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.gizmo2.Gizmo;
+
+/**
+ * Throughput of generating methods which contain the various kinds of {@code switch}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SwitchBenchmark {
+    private static final List<Class<?>> CLASSES = List.of(
+            String.class, Integer.class, Long.class, Short.class, Byte.class, Character.class, Boolean.class,
+            Float.class, Double.class, Object.class, List.class, Map.class, Set.class,
+            ArrayList.class, HashMap.class, HashSet.class, int.class, long.class,
+            int[].class, String[].class);
+
+    @Param({ "10", "100", "1000" })
+    int caseCount;
+
+    Workloads.CountingOutput output;
+    Gizmo gizmo;
+    List<String> keys;
+
+    @Setup
+    public void setup() {
+        output = new Workloads.CountingOutput();
+        gizmo = Gizmo.create(output);
+        keys = Workloads.keys(caseCount);
+    }
+
+    @Benchmark
+    public long stringSwitch() {
+        Workloads.stringSwitch(gizmo, "bench.StringSwitch", keys);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long denseIntSwitch() {
+        Workloads.intSwitch(gizmo, "bench.DenseIntSwitch", caseCount, 1);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long sparseIntSwitch() {
+        Workloads.intSwitch(gizmo, "bench.SparseIntSwitch", caseCount, 37);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long classSwitch() {
+        Workloads.classSwitch(gizmo, "bench.ClassSwitch", CLASSES);
+        return output.bytes;
+    }
+
+    @Benchmark
+    public long enumSwitch() {
+        Workloads.enumSwitch(gizmo, "bench.DaySwitch", DayOfWeek.class);
+        Workloads.enumSwitch(gizmo, "bench.ElementTypeSwitch", ElementType.class);
+        return output.bytes;
+    }
+}
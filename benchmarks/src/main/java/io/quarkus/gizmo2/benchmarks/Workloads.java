@@ -0,0 +1,299 @@
+package io.quarkus.gizmo2.benchmarks;
+
+import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.quarkus.gizmo2.ClassOutput;
+import io.quarkus.gizmo2.Const;
+import io.quarkus.gizmo2.Expr;
+import io.quarkus.gizmo2.Gizmo;
+import io.quarkus.gizmo2.LocalVar;
+import io.quarkus.gizmo2.ParamVar;
+import io.quarkus.gizmo2.StaticFieldVar;
+import io.quarkus.gizmo2.creator.BlockCreator;
+import io.quarkus.gizmo2.desc.ConstructorDesc;
+import io.quarkus.gizmo2.desc.FieldDesc;
+import io.quarkus.gizmo2.desc.MethodDesc;
+
+/**
+ * Representative class generation workloads which are shared between benchmarks.
+ * Each workload generates exactly one top-level type (plus any types that it implies, such as
+ * anonymous classes for lambdas) into the given {@code Gizmo}.
+ */
+final class Workloads {
+    static final MethodDesc MD_Integer_toHexString = MethodDesc.of(Integer.class, "toHexString", String.class, int.class);
+
+    private Workloads() {
+    }
+
+    /**
+     * A class output which discards everything, but counts the bytes written so that the work
+     * cannot be optimized away.
+     */
+    static final class CountingOutput implements ClassOutput {
+        long bytes;
+        int count;
+
+        public void write(final String path, final byte[] bytes) {
+            this.bytes += bytes.length;
+            count++;
+        }
+    }
+
+    /**
+     * A small bean-like class with a few fields, a constructor and accessors.
+     */
+    static ClassDesc simpleClass(Gizmo g, String name) {
+        return g.class_(name, zc -> {
+            FieldDesc a = zc.field("a", fc -> fc.setType(int.class));
+            FieldDesc b = zc.field("b", fc -> fc.setType(String.class));
+            zc.constructor(cc -> {
+                ParamVar pa = cc.parameter("a", int.class);
+                ParamVar pb = cc.parameter("b", String.class);
+                cc.body(b0 -> {
+                    b0.invokeSpecial(ConstructorDesc.of(Object.class), cc.this_());
+                    b0.set(cc.this_().field(a), pa);
+                    b0.set(cc.this_().field(b), pb);
+                    b0.return_();
+                });
+            });
+            zc.method("getA", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(mc.this_().field(a)));
+            });
+            zc.method("getB", mc -> {
+                mc.returning(String.class);
+                mc.body(b0 -> b0.return_(mc.this_().field(b)));
+            });
+            zc.method("describe", mc -> {
+                mc.returning(String.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.withString(b0.withObject(mc.this_().field(b)).toString_())
+                            .concat(b0.invokeStatic(MD_Integer_toHexString, mc.this_().field(a))));
+                });
+            });
+        });
+    }
+
+    /**
+     * An interface with abstract, default and static methods.
+     */
+    static ClassDesc simpleInterface(Gizmo g, String name, int methods) {
+        return g.interface_(name, ic -> {
+            for (int i = 0; i < methods; i++) {
+                int idx = i;
+                MethodDesc abs = ic.method("value" + i, mc -> mc.returning(int.class));
+                ic.defaultMethod("hex" + i, mc -> {
+                    mc.returning(String.class);
+                    mc.body(b0 -> b0.return_(b0.invokeStatic(MD_Integer_toHexString,
+                            b0.add(b0.invokeInterface(abs, mc.this_()), Const.of(idx)))));
+                });
+            }
+            ic.staticMethod("create", mc -> {
+                mc.returning(Object.class);
+                mc.body(BlockCreator::returnNull);
+            });
+        });
+    }
+
+    /**
+     * A registry-like class whose {@code <clinit>} initializes many static fields,
+     * each registered as a separate static initializer.
+     */
+    static ClassDesc largeStaticInitializer(Gizmo g, String name, int fields) {
+        return g.class_(name, zc -> {
+            for (int i = 0; i < fields; i++) {
+                int idx = i;
+                StaticFieldVar f = zc.staticField("F" + i, fc -> fc.setType(String.class));
+                zc.staticInitializer(b0 -> {
+                    Expr hex = b0.invokeStatic(MD_Integer_toHexString, Const.of(idx * 31));
+                    b0.set(f, b0.withString(Const.of("entry-" + idx + "-")).concat(hex));
+                });
+            }
+        });
+    }
+
+    /**
+     * A class with a method containing deeply nested conditional blocks and loops.
+     */
+    static ClassDesc deepNesting(Gizmo g, String name, int depth) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("compute", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    LocalVar acc = b0.localVar("acc", Const.of(0));
+                    nest(b0, x, acc, depth);
+                    b0.return_(acc);
+                });
+            });
+        });
+    }
+
+    private static void nest(BlockCreator b, ParamVar x, LocalVar acc, int depth) {
+        if (depth == 0) {
+            b.addAssign(acc, x);
+            return;
+        }
+        LocalVar tmp = b.localVar("t" + depth, b.mul(x, Const.of(depth)));
+        b.ifElse(b.lt(tmp, Const.of(depth * 100)), b1 -> {
+            b1.addAssign(acc, tmp);
+            nest(b1, x, acc, depth - 1);
+        }, b1 -> {
+            LocalVar i = b1.localVar("i" + depth, Const.of(0));
+            b1.while_(b2 -> b2.yield(b2.lt(i, Const.of(depth))), b2 -> {
+                b2.inc(i);
+                b2.addAssign(acc, i);
+            });
+            nest(b1, x, acc, depth - 1);
+        });
+    }
+
+    /**
+     * A class with a method which creates many small lambdas, some capturing.
+     */
+    static ClassDesc manyLambdas(Gizmo g, String name, int lambdas) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("lambdas", mc -> {
+                mc.returning(Object.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    LocalVar list = b0.localVar("list", b0.new_(ArrayList.class));
+                    for (int i = 0; i < lambdas; i++) {
+                        int idx = i;
+                        Expr lambda;
+                        if ((i & 1) == 0) {
+                            lambda = b0.lambda(Supplier.class, lc -> {
+                                lc.body(b1 -> b1.return_(Const.of("lambda-" + idx)));
+                            });
+                        } else {
+                            lambda = b0.lambda(Function.class, lc -> {
+                                var captured = lc.capture("captured", x);
+                                ParamVar p = lc.parameter("p", 0);
+                                lc.body(b1 -> b1.return_(b1.withString(b1.withObject(p).toString_())
+                                        .concat(b1.invokeStatic(MD_Integer_toHexString, b1.add(captured, Const.of(idx))))));
+                            });
+                        }
+                        b0.withCollection(list).add(lambda);
+                    }
+                    b0.return_(list);
+                });
+            });
+        });
+    }
+
+    /**
+     * A class with a string switch over {@code cases} keys.
+     */
+    static ClassDesc stringSwitch(Gizmo g, String name, List<String> keys) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("lookup", mc -> {
+                mc.returning(int.class);
+                ParamVar key = mc.parameter("key", String.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(int.class, key, sc -> {
+                        for (int i = 0; i < keys.size(); i++) {
+                            int idx = i;
+                            sc.caseOf(keys.get(i), b1 -> b1.yield(Const.of(idx)));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+    }
+
+    /**
+     * A class with a sparse {@code int} switch over {@code cases} values.
+     */
+    static ClassDesc intSwitch(Gizmo g, String name, int cases, int stride) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("lookup", mc -> {
+                mc.returning(int.class);
+                ParamVar key = mc.parameter("key", int.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(int.class, key, sc -> {
+                        for (int i = 0; i < cases; i++) {
+                            int idx = i;
+                            sc.caseOf(i * stride, b1 -> b1.yield(Const.of(idx)));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+    }
+
+    /**
+     * A class with a switch over {@code Class} values.
+     */
+    static ClassDesc classSwitch(Gizmo g, String name, List<Class<?>> classes) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("lookup", mc -> {
+                mc.returning(int.class);
+                ParamVar key = mc.parameter("key", Class.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(int.class, key, sc -> {
+                        for (int i = 0; i < classes.size(); i++) {
+                            int idx = i;
+                            sc.caseOf(Const.of(classes.get(i)), b1 -> b1.yield(Const.of(idx)));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+    }
+
+    /**
+     * A class with a switch over {@code enum} values.
+     */
+    static <E extends Enum<E>> ClassDesc enumSwitch(Gizmo g, String name, Class<E> enumType) {
+        return g.class_(name, zc -> {
+            zc.staticMethod("lookup", mc -> {
+                mc.returning(int.class);
+                ParamVar key = mc.parameter("key", enumType);
+                mc.body(b0 -> {
+                    b0.return_(b0.switchEnum(int.class, key, sc -> {
+                        for (E e : enumType.getEnumConstants()) {
+                            sc.caseOf(e, b1 -> b1.yield(Const.of(e.ordinal())));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+    }
+
+    /**
+     * A value class with {@code fields} fields of mixed types and generated
+     * {@code equals}, {@code hashCode} and {@code toString} methods.
+     */
+    static ClassDesc valueClass(Gizmo g, String name, int fields) {
+        Class<?>[] types = { int.class, long.class, String.class, double.class, Object.class, int[].class, boolean.class };
+        return g.class_(name, zc -> {
+            List<FieldDesc> descs = new ArrayList<>(fields);
+            for (int i = 0; i < fields; i++) {
+                Class<?> type = types[i % types.length];
+                descs.add(zc.field("f" + i, fc -> fc.setType(type)));
+            }
+            zc.defaultConstructor();
+            zc.generateEqualsAndHashCode(descs);
+            zc.generateToString(descs);
+        });
+    }
+
+    /**
+     * {@return a list of {@code count} distinct property-name-like keys}
+     */
+    static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("property" + Integer.toString(i * 7919, 36) + (i % 3 == 0 ? "Name" : i % 3 == 1 ? "-header" : "_id"));
+        }
+        return keys;
+    }
+}
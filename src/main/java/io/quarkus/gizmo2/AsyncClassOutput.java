@@ -0,0 +1,40 @@
+package io.quarkus.gizmo2;
+
+import io.quarkus.gizmo2.impl.AsyncClassOutputImpl;
+import io.quarkus.gizmo2.impl.ZipClassOutputImpl;
+
+/**
+ * A class output which performs its writes on background threads.
+ * <p>
+ * Each write is queued into a bounded buffer and returns immediately, unless the buffer is full,
+ * in which case the caller waits until there is room for it.
+ * This allows output to overlap with class generation while keeping memory usage bounded.
+ * Instances are thread-safe.
+ * <p>
+ * Any failure of a background write is recorded; once a write has failed, all subsequent calls to
+ * {@link #write(String, byte[])}, {@link #flush()} and {@link #close()} throw an {@link IllegalStateException}
+ * whose cause is the original failure.
+ * <p>
+ * The output must be {@linkplain #close() closed} in order to complete its output and release its resources.
+ *
+ * @see ClassOutput#asyncFileWriter(java.nio.file.Path)
+ * @see ClassOutput#async(int)
+ * @see ClassOutput#zipWriter(java.nio.file.Path)
+ */
+public sealed interface AsyncClassOutput extends ClassOutput, AutoCloseable permits AsyncClassOutputImpl, ZipClassOutputImpl {
+    /**
+     * Wait until all queued writes have completed.
+     *
+     * @throws IllegalStateException if a write has failed
+     */
+    void flush();
+
+    /**
+     * Wait until all queued writes have completed, and then stop the writer threads.
+     * Any further writes will fail with an {@link IllegalStateException}.
+     * Closing an output which is already closed has no effect.
+     *
+     * @throws IllegalStateException if a write has failed
+     */
+    void close();
+}
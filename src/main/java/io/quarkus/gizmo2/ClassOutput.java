@@ -7,8 +7,14 @@ import java.lang.constant.MethodTypeDesc;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+import io.quarkus.gizmo2.impl.AsyncClassOutputImpl;
+import io.quarkus.gizmo2.impl.AtomicFileClassOutput;
+import io.quarkus.gizmo2.impl.DeduplicatingClassOutputImpl;
 import io.quarkus.gizmo2.impl.Util;
+import io.quarkus.gizmo2.impl.ZipClassOutputImpl;
 import io.smallrye.common.constraint.Assert;
 import io.smallrye.common.resource.ResourceUtils;
 
@@ -105,6 +111,31 @@ public interface ClassOutput {
         };
     }
 
+    /**
+     * {@return an asynchronous class output which writes to this output on a single background thread}
+     * The calls to this output are made in the same order as the calls to the returned output.
+     * This output does not need to be thread-safe.
+     *
+     * @param capacity the maximum number of writes which may be queued (must be at least 1)
+     * @see AsyncClassOutput
+     */
+    default AsyncClassOutput async(int capacity) {
+        return new AsyncClassOutputImpl(this, 1, capacity);
+    }
+
+    /**
+     * {@return a class output which only writes to this output the files whose content has changed since the previous run}
+     * The content hashes of previous runs are stored in the given manifest file,
+     * which is read immediately and written when the returned output is closed.
+     *
+     * @param manifestFile the path of the manifest file (must not be {@code null})
+     * @see DeduplicatingClassOutput
+     */
+    default DeduplicatingClassOutput deduplicating(Path manifestFile) {
+        Assert.checkNotNullParam("manifestFile", manifestFile);
+        return new DeduplicatingClassOutputImpl(this, manifestFile);
+    }
+
     /**
      * {@return a class output for the given path}
      *
@@ -123,6 +154,65 @@ public interface ClassOutput {
         };
     }
 
+    /**
+     * {@return an asynchronous class output for the given path}
+     * Files are written on a small number of background threads.
+     * Each file is written atomically, by way of a temporary file which is renamed into place,
+     * and each directory is only created once.
+     *
+     * @param basePath the path into which class files should be stored (must not be {@code null})
+     * @see AsyncClassOutput
+     */
+    static AsyncClassOutput asyncFileWriter(Path basePath) {
+        return asyncFileWriter(basePath, Math.min(4, Runtime.getRuntime().availableProcessors()), 256);
+    }
+
+    /**
+     * {@return an asynchronous class output for the given path}
+     * Files are written on the given number of background threads.
+     * Each file is written atomically, by way of a temporary file which is renamed into place,
+     * and each directory is only created once.
+     *
+     * @param basePath the path into which class files should be stored (must not be {@code null})
+     * @param threads the number of writer threads (must be at least 1)
+     * @param capacity the maximum number of writes which may be queued (must be at least 1)
+     * @see AsyncClassOutput
+     */
+    static AsyncClassOutput asyncFileWriter(Path basePath, int threads, int capacity) {
+        Assert.checkNotNullParam("basePath", basePath);
+        return new AsyncClassOutputImpl(new AtomicFileClassOutput(basePath), threads, capacity);
+    }
+
+    /**
+     * {@return a class output which streams into a new ZIP or JAR file at the given path}
+     * Entries are compressed concurrently on the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param zipFile the path of the archive to create or replace (must not be {@code null})
+     * @see #zipWriter(Path, Executor)
+     */
+    static AsyncClassOutput zipWriter(Path zipFile) {
+        return zipWriter(zipFile, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * {@return a class output which streams into a new ZIP or JAR file at the given path}
+     * Entries are compressed concurrently on the given executor, and are written to the archive
+     * in the order in which they are given to the output. The central directory of the archive is written
+     * when the output is {@linkplain AsyncClassOutput#close() closed}, so the archive is not
+     * valid until then. All entries are given the same fixed timestamp,
+     * so that generating the same classes always yields an identical archive.
+     * Writing the same path twice is an error.
+     *
+     * @param zipFile the path of the archive to create or replace (must not be {@code null})
+     * @param executor the executor used to compress entries (must not be {@code null})
+     * @see AsyncClassOutput
+     */
+    static AsyncClassOutput zipWriter(Path zipFile, Executor executor) {
+        Assert.checkNotNullParam("zipFile", zipFile);
+        Assert.checkNotNullParam("executor", executor);
+        return new ZipClassOutputImpl(zipFile, executor, 256);
+    }
+
     /**
      * {@return a class output that discards its inputs}
      */
@@ -5,10 +5,12 @@ import static io.quarkus.gizmo2.desc.Descs.*;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.Constable;
 import java.lang.constant.ConstantDesc;
+import java.lang.constant.ConstantDescs;
 import java.lang.constant.DynamicConstantDesc;
 import java.lang.constant.MethodHandleDesc;
 import java.lang.constant.MethodTypeDesc;
 import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -477,8 +479,11 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
 
     /**
      * {@return a list constant containing the given items}
-     * The maximum number of items is around 254 (depending on the constant type); however,
-     * this method should only be used for relatively short lists to avoid overfilling the constant pool.
+     * Lists of up to 254 items are created by a single dynamic constant.
+     * Larger lists are split into chunks of up to 254 items, which are combined by a bootstrap method
+     * that is generated into each class which uses the constant; such a constant has no
+     * {@linkplain #desc() nominal description}.
+     * In either case, this method should only be used for moderately sized lists to avoid overfilling the constant pool.
      * Note that the JDK immutable collection types forbid {@code null}, so
      * {@linkplain Const#ofNull(ClassDesc) <code>null</code> values} should not be used.
      *
@@ -489,16 +494,18 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
         items = List.copyOf(items);
         int size = items.size();
         if (size > 254) {
-            throw new IllegalArgumentException(
-                    "List is too big (%d elements, max is 254)".formatted(Integer.valueOf(size)));
+            return ConstImpl.ofLargeCollection(ConstantDescs.CD_List, chunks(items));
         }
         return ofInvoke(ofMethodHandle(InvokeKind.STATIC, size > 10 ? MD_List.of_array : MD_List.of_n(size)), consts(items));
     }
 
     /**
      * {@return a set constant containing the given items}
-     * The maximum number of items is around 254 (depending on the constant type); however,
-     * this method should only be used for relatively small sets to avoid overfilling the constant pool.
+     * Sets of up to 254 items are created by a single dynamic constant.
+     * Larger sets are split into chunks of up to 254 items, which are combined by a bootstrap method
+     * that is generated into each class which uses the constant; such a constant has no
+     * {@linkplain #desc() nominal description}.
+     * In either case, this method should only be used for moderately sized sets to avoid overfilling the constant pool.
      * Note that the JDK immutable collection types forbid {@code null}, so
      * {@linkplain Const#ofNull(ClassDesc) <code>null</code> values} should not be used.
      *
@@ -509,16 +516,18 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
         items = Set.copyOf(items);
         int size = items.size();
         if (size > 254) {
-            throw new IllegalArgumentException(
-                    "Set is too big (%d elements, max is 254)".formatted(Integer.valueOf(size)));
+            return ConstImpl.ofLargeCollection(ConstantDescs.CD_Set, chunks(List.copyOf(items)));
         }
         return ofInvoke(ofMethodHandle(InvokeKind.STATIC, size > 10 ? MD_Set.of_array : MD_Set.of_n(size)), consts(items));
     }
 
     /**
      * {@return a map constant containing the given items}
-     * The maximum number of items is around 254 (depending on the constant type); however,
-     * this method should only be used for relatively small maps to avoid overfilling the constant pool.
+     * Maps of up to 254 entries are created by a single dynamic constant.
+     * Larger maps are split into chunks of up to 254 entries, which are combined by a bootstrap method
+     * that is generated into each class which uses the constant; such a constant has no
+     * {@linkplain #desc() nominal description}.
+     * In either case, this method should only be used for moderately sized maps to avoid overfilling the constant pool.
      * Note that the JDK immutable collection types forbid {@code null}, so
      * {@linkplain Const#ofNull(ClassDesc) <code>null</code> values} should not be used.
      *
@@ -529,8 +538,7 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
         items = Map.copyOf(items);
         int size = items.size();
         if (size > 254) {
-            throw new IllegalArgumentException(
-                    "Map is too big (%d elements, max is 254)".formatted(Integer.valueOf(size)));
+            return ConstImpl.ofLargeCollection(ConstantDescs.CD_Map, chunks(items.entrySet().stream().map(Const::of).toList()));
         }
         if (size <= 10) {
             // use the simple factory
@@ -544,6 +552,62 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
         }
     }
 
+    /**
+     * {@return a constant for a copy of the given {@code byte} array}
+     * The array contents are stored compactly in the constant pool of each class which uses the constant,
+     * and are decoded once by a bootstrap method which is generated into that class.
+     * Such a constant has no {@linkplain #desc() nominal description}.
+     * Note that every evaluation of the constant within a class yields the same array instance,
+     * so the array must not be modified.
+     *
+     * @param values the array values (must not be {@code null})
+     */
+    static Const ofBytes(byte... values) {
+        return ConstImpl.ofArray(values);
+    }
+
+    /**
+     * {@return a constant for a copy of the given {@code char} array}
+     * See {@link #ofBytes(byte...)} for details.
+     *
+     * @param values the array values (must not be {@code null})
+     */
+    static Const ofCharArray(char... values) {
+        return ConstImpl.ofArray(values);
+    }
+
+    /**
+     * {@return a constant for a copy of the given {@code short} array}
+     * See {@link #ofBytes(byte...)} for details.
+     *
+     * @param values the array values (must not be {@code null})
+     */
+    static Const ofShortArray(short... values) {
+        return ConstImpl.ofArray(values);
+    }
+
+    /**
+     * {@return a constant for a copy of the given {@code int} array}
+     * See {@link #ofBytes(byte...)} for details.
+     * Values with a small magnitude are stored more compactly than large ones.
+     *
+     * @param values the array values (must not be {@code null})
+     */
+    static Const ofIntArray(int... values) {
+        return ConstImpl.ofArray(values);
+    }
+
+    /**
+     * {@return a constant for a copy of the given {@code long} array}
+     * See {@link #ofBytes(byte...)} for details.
+     * Values with a small magnitude are stored more compactly than large ones.
+     *
+     * @param values the array values (must not be {@code null})
+     */
+    static Const ofLongArray(long... values) {
+        return ConstImpl.ofArray(values);
+    }
+
     /**
      * {@return a map entry constant with the key and value of the given entry}
      *
@@ -575,6 +639,15 @@ public sealed interface Const extends Expr, Constable permits ConstImpl {
         return items.stream().map(Const::of).toArray(Const[]::new);
     }
 
+    private static List<Const> chunks(final List<?> items) {
+        int size = items.size();
+        List<Const> chunks = new ArrayList<>((size + 253) / 254);
+        for (int i = 0; i < size; i += 254) {
+            chunks.add(of(items.subList(i, Math.min(i + 254, size))));
+        }
+        return chunks;
+    }
+
     private static IllegalArgumentException wrongType(Object object) {
         return new IllegalArgumentException("Given object %s is not a valid constant".formatted(object));
     }
@@ -0,0 +1,29 @@
+package io.quarkus.gizmo2;
+
+import io.quarkus.gizmo2.impl.DeduplicatingClassOutputImpl;
+
+/**
+ * A class output which only passes on writes whose content differs from the content
+ * which was written to the same path during a previous run.
+ * <p>
+ * The content hash of every written path is recorded in a manifest file, which is loaded when the output is
+ * created and saved when it is {@linkplain #close() closed}. Unchanged files are not written at all,
+ * so they keep their timestamps, and caches which depend on them remain valid.
+ * The manifest only records the paths written during the most recent run.
+ * <p>
+ * The manifest must describe the actual contents of the delegate output; if the delegate output is cleared,
+ * then the manifest must be deleted as well.
+ * Instances are thread-safe if the delegate output is thread-safe.
+ *
+ * @see ClassOutput#deduplicating(java.nio.file.Path)
+ */
+public sealed interface DeduplicatingClassOutput extends ClassOutput, AutoCloseable permits DeduplicatingClassOutputImpl {
+    /**
+     * Save the manifest.
+     * The delegate output is not closed.
+     * Closing an output which is already closed has no effect.
+     *
+     * @throws IllegalStateException if the manifest could not be written
+     */
+    void close();
+}
@@ -0,0 +1,32 @@
+package io.quarkus.gizmo2;
+
+import java.util.List;
+
+/**
+ * Possible translation strategies for {@code finally} blocks.
+ */
+public enum FinallyStrategy {
+    /**
+     * The default strategy.
+     * A separate copy of the {@code finally} block is generated for each distinct way of leaving the {@code try} body
+     * (falling out, returning, breaking, and so on), in addition to the copy which handles a thrown exception.
+     * This yields the fastest code, but the size of the method grows with the number of exits.
+     */
+    INLINE,
+    /**
+     * The shared strategy.
+     * Every exit from the {@code try} body records its destination in an integer local variable,
+     * any value that is being returned or thrown is saved in a local variable,
+     * and a single copy of the {@code finally} block is run, after which a {@code tableswitch} on the
+     * recorded destination completes the exit.
+     * This costs a few instructions per exit, but the {@code finally} block is generated only once,
+     * which may keep large methods small enough to be compiled.
+     */
+    SHARED,
+    ;
+
+    /**
+     * The list of possible values for this type.
+     */
+    public static final List<FinallyStrategy> values = List.of(values());
+}
@@ -1,6 +1,10 @@
 package io.quarkus.gizmo2;
 
 import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 import io.quarkus.gizmo2.creator.ClassCreator;
@@ -114,6 +118,110 @@ public sealed interface Gizmo permits GizmoImpl {
      */
     Gizmo withVersion(ClassVersion version);
 
+    /**
+     * {@return a Gizmo instance which reports the metrics of every generated type to the given listener}
+     * If a listener was already configured, then both listeners are called.
+     * <p>
+     * By default, there is no listener, and no metrics are gathered.
+     *
+     * @param listener the listener to notify (must not be {@code null})
+     */
+    Gizmo withListener(GizmoListener listener);
+
+    /**
+     * {@return a Gizmo instance which has local variable slot reuse enabled or disabled}
+     * When enabled, the slot of a local variable is released after the last statement of its block
+     * which uses it, so that a variable declared later in the same block may occupy the same slot.
+     * This reduces the {@code max_locals} of methods which declare many short-lived variables,
+     * at the cost of a pass over each block when the method is written.
+     * Slots are not reused within the body of a {@code try} which has a {@code finally} block.
+     * <p>
+     * This doesn't affect runtime semantics of generated code, but a debugger may show the
+     * variable as being out of scope after its last use.
+     * <p>
+     * By default, slot reuse is disabled, and every variable keeps its slot until the end of its block.
+     *
+     * @param localSlotReuse {@code true} to enable slot reuse, or {@code false} to disable it
+     */
+    Gizmo withLocalSlotReuse(boolean localSlotReuse);
+
+    /**
+     * {@return a Gizmo instance which has peephole optimization enabled or disabled}
+     * When enabled, short sequences of adjacent operations in each block are simplified before the
+     * bytecode is written. For example, boxing which is immediately followed by unboxing is removed,
+     * and storing to a local variable which is then immediately loaded again is replaced by a {@code dup}.
+     * <p>
+     * This doesn't affect runtime semantics of generated code, but it usually makes it smaller.
+     * <p>
+     * By default, peephole optimization is disabled.
+     *
+     * @param peephole {@code true} to enable peephole optimization, or {@code false} to disable it
+     */
+    Gizmo withPeepholeOptimization(boolean peephole);
+
+    /**
+     * {@return a Gizmo instance which translates {@code finally} blocks according to the given strategy}
+     * The strategy may also be selected for an individual {@code try} statement using
+     * {@link io.quarkus.gizmo2.creator.TryCreator#finally_(FinallyStrategy, Consumer)}.
+     * <p>
+     * The default translation strategy is {@link FinallyStrategy#INLINE}.
+     *
+     * @param finallyStrategy the {@code finally} translation strategy to use (must not be {@code null})
+     */
+    Gizmo withFinallyStrategy(FinallyStrategy finallyStrategy);
+
+    /**
+     * {@return a Gizmo instance which automatically splits large method bodies}
+     * When the estimated size of the code of a method exceeds the given threshold (in bytes),
+     * runs of self-contained statements are moved into private synthetic helper methods on the same type,
+     * which are called from the original method. Local variables which are used by the moved statements
+     * are passed as arguments, so splitting does not change the behavior of the generated code.
+     * <p>
+     * A threshold of {@code 8000} keeps methods below the default size limit for JIT compilation
+     * of the HotSpot JVM, and {@code 65535} is the largest method size allowed by the class file format.
+     * Statements which return, which assign variables declared outside of them, or which jump to a block
+     * outside of them are never moved, and constructors are never split,
+     * so the threshold is a best-effort target rather than a guarantee.
+     * <p>
+     * By default, method splitting is disabled.
+     *
+     * @param methodSplitThreshold the estimated code size above which methods are split, or {@code 0} to disable
+     *        method splitting (must not be negative)
+     */
+    Gizmo withMethodSplitThreshold(int methodSplitThreshold);
+
+    /**
+     * {@return a Gizmo instance which moves static initializers out of the {@code <clinit>} method}
+     * When enabled, the {@linkplain io.quarkus.gizmo2.creator.TypeCreator#staticInitializer(Consumer) static initializers}
+     * of each type are grouped into private synthetic {@code static} methods, which are called in order
+     * from a small {@code <clinit>} method.
+     * Consecutive initializers are placed in the same method as long as their estimated code size (in bytes)
+     * does not exceed the given chunk size, and an initializer which is larger than the chunk size
+     * gets a method of its own, so a chunk size of {@code 1} places every initializer in a separate method.
+     * Initializers which return early from the static initializer are not moved.
+     * <p>
+     * Large static initializers are only run once, so they are usually interpreted,
+     * and smaller methods are cheaper to parse and verify, and may still be compiled if they are called.
+     * <p>
+     * By default, all static initializers are written directly into the {@code <clinit>} method.
+     *
+     * @param staticInitChunkSize the maximum estimated code size of each group of static initializers,
+     *        or {@code 0} to disable grouping (must not be negative)
+     */
+    Gizmo withStaticInitializerChunkSize(int staticInitChunkSize);
+
+    /**
+     * {@return a Gizmo instance which uses the given cost model to lower switch dispatch}
+     * The case values of each switch (or their hashes) are split into clusters,
+     * each of which is dispatched by a {@code tableswitch} if it is dense enough, or by a {@code lookupswitch} otherwise,
+     * and the clusters are selected by a binary search on the switch value.
+     * <p>
+     * By default, {@link SwitchCostModel#DEFAULT} is used.
+     *
+     * @param switchCostModel the switch cost model (must not be {@code null})
+     */
+    Gizmo withSwitchCostModel(SwitchCostModel switchCostModel);
+
     /**
      * Add a new class.
      *
@@ -154,5 +262,60 @@ public sealed interface Gizmo permits GizmoImpl {
      */
     ClassDesc interface_(ClassDesc desc, Consumer<InterfaceCreator> builder);
 
+    /**
+     * Add many new classes, generating them concurrently on the given executor.
+     * <p>
+     * Each builder is run on a thread of the given executor, so builders must not share mutable state
+     * without synchronization. Everything that a class would write to the {@linkplain ClassOutput output},
+     * including nested and anonymous classes, resources, sources and bootstrap method registrations,
+     * is buffered per class and delivered from the calling thread only, one class at a time, in the
+     * iteration order of {@code builders}. Thus the output handler is never called concurrently, and
+     * the sequence of output calls is identical to calling {@link #class_(ClassDesc, Consumer)} for each
+     * entry in turn, regardless of the number of threads used.
+     * <p>
+     * If a builder fails, the output of all classes which precede it is delivered, the remaining
+     * jobs are cancelled, and the exception is rethrown from this method.
+     * <p>
+     * Any executor may be used; for example, a {@link ForkJoinPool} or,
+     * on Java 21 or later, a virtual thread per task executor.
+     *
+     * @param builders the builders for the classes, in output order (must not be {@code null})
+     * @param executor the executor on which to generate the classes (must not be {@code null})
+     * @return the descriptors of the created classes, in output order (not {@code null})
+     */
+    List<ClassDesc> classes(Map<ClassDesc, ? extends Consumer<ClassCreator>> builders, Executor executor);
+
+    /**
+     * Add many new classes, generating them concurrently on the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param builders the builders for the classes, in output order (must not be {@code null})
+     * @return the descriptors of the created classes, in output order (not {@code null})
+     * @see #classes(Map, Executor)
+     */
+    default List<ClassDesc> classes(Map<ClassDesc, ? extends Consumer<ClassCreator>> builders) {
+        return classes(builders, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Add many new interfaces, generating them concurrently on the given executor.
+     * The threading and output ordering rules of {@link #classes(Map, Executor)} apply.
+     *
+     * @param builders the builders for the interfaces, in output order (must not be {@code null})
+     * @param executor the executor on which to generate the interfaces (must not be {@code null})
+     * @return the descriptors of the created interfaces, in output order (not {@code null})
+     */
+    List<ClassDesc> interfaces(Map<ClassDesc, ? extends Consumer<InterfaceCreator>> builders, Executor executor);
+
+    /**
+     * Add many new interfaces, generating them concurrently on the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param builders the builders for the interfaces, in output order (must not be {@code null})
+     * @return the descriptors of the created interfaces, in output order (not {@code null})
+     * @see #interfaces(Map, Executor)
+     */
+    default List<ClassDesc> interfaces(Map<ClassDesc, ? extends Consumer<InterfaceCreator>> builders) {
+        return interfaces(builders, ForkJoinPool.commonPool());
+    }
+
     // todo: enum, record, @interface
 }
@@ -0,0 +1,68 @@
+package io.quarkus.gizmo2;
+
+import java.lang.constant.ClassDesc;
+
+import io.smallrye.common.constraint.Assert;
+
+/**
+ * A listener which is notified of every type generated by a Gizmo instance,
+ * including member classes, anonymous classes, and lambda classes.
+ * <p>
+ * Listeners are called on the thread which generated the type, after its class file was built
+ * but before it is written to the {@linkplain ClassOutput output}.
+ * If types are generated concurrently, then the listener must be thread-safe.
+ * When no listener is configured, no metrics are gathered at all.
+ *
+ * @see Gizmo#withListener(GizmoListener)
+ */
+@FunctionalInterface
+public interface GizmoListener {
+    /**
+     * Called when a type was generated.
+     *
+     * @param metrics the metrics of the generated type (not {@code null})
+     */
+    void typeGenerated(TypeMetrics metrics);
+
+    /**
+     * {@return a listener which calls this listener and then the given listener}
+     *
+     * @param next the listener to call next (must not be {@code null})
+     */
+    default GizmoListener andThen(GizmoListener next) {
+        Assert.checkNotNullParam("next", next);
+        return metrics -> {
+            typeGenerated(metrics);
+            next.typeGenerated(metrics);
+        };
+    }
+
+    /**
+     * The metrics of a generated type.
+     * Types which are created from within the builder of another type (for example, member classes
+     * or lambdas) are reported separately, but their time is also included in the time of the enclosing type.
+     *
+     * @param type the descriptor of the generated type (not {@code null})
+     * @param builderNanos the wall time spent in the builder callback of the type, in nanoseconds
+     * @param buildNanos the wall time spent building the class file, in nanoseconds,
+     *        including {@code builderNanos}
+     * @param byteSize the size of the class file in bytes
+     * @param methodCount the number of methods (including constructors and initializers)
+     * @param maxCodeLength the length of the longest method body in bytes, or 0 if there is none
+     * @param lambdaCount the number of lambdas defined by the code of the type
+     * @param constantPoolSize the number of constant pool entries
+     */
+    record TypeMetrics(
+            ClassDesc type,
+            long builderNanos,
+            long buildNanos,
+            int byteSize,
+            int methodCount,
+            int maxCodeLength,
+            int lambdaCount,
+            int constantPoolSize) {
+        public TypeMetrics {
+            Assert.checkNotNullParam("type", type);
+        }
+    }
+}
@@ -21,6 +21,25 @@ public enum LambdaStrategy {
      * The lambda body is generated as an anonymous class which is loaded by the host class loader.
      */
     ANONYMOUS_CLASS,
+    /**
+     * The optimized lambda generation strategy, with the lambda classes stored in a resource.
+     * As with {@link #OPTIMIZED}, a hidden class is generated which implements the lambda type.
+     * However, rather than being encoded into a string in the constant pool of the host class,
+     * the bytes of the lambda classes of each host class are written to a single resource next to the host class,
+     * from which each call site loads its own lambda class by offset.
+     * This avoids the size limit of constant pool strings and the cost of decoding,
+     * but requires a class output which supports resources.
+     */
+    OPTIMIZED_RESOURCE,
+    /**
+     * The ahead-of-time lambda generation strategy.
+     * Each lambda is generated as a named nestmate class of the host class, which is written to the class output
+     * along with the host class.
+     * Non-capturing lambdas are created once, and stored in a static field of the lambda class.
+     * No classes are defined at run time, so the lambda classes can be archived and preloaded
+     * like any other class.
+     */
+    NESTMATE_CLASS,
     ;
 
     /**
@@ -0,0 +1,64 @@
+package io.quarkus.gizmo2;
+
+/**
+ * The cost model which is used to lower the dispatch of {@code switch} statements and expressions.
+ * <p>
+ * The (possibly hashed) case values of a switch are split into clusters of consecutive values.
+ * A cluster which is dense enough and large enough is dispatched by a {@code tableswitch} instruction,
+ * and the remaining values between such clusters are dispatched by {@code lookupswitch} instructions.
+ * If there is more than one cluster, the clusters are selected by a binary search on the switch value.
+ * A switch with no sufficiently dense cluster is dispatched by a single {@code lookupswitch} instruction.
+ */
+public final class SwitchCostModel {
+    /**
+     * The default cost model, which uses a {@code tableswitch} for clusters of at least four values
+     * that occupy at least 40% of their range.
+     */
+    public static final SwitchCostModel DEFAULT = new SwitchCostModel(40, 4);
+
+    private final int minTableDensity;
+    private final int minTableCases;
+
+    private SwitchCostModel(final int minTableDensity, final int minTableCases) {
+        this.minTableDensity = minTableDensity;
+        this.minTableCases = minTableCases;
+    }
+
+    /**
+     * {@return a cost model with the given parameters}
+     * A density of {@code 100} only allows a {@code tableswitch} for clusters without gaps.
+     *
+     * @param minTableDensity the minimum percentage of the range of a cluster which must be occupied by case values
+     *        for the cluster to be dispatched by a {@code tableswitch} (must be between {@code 1} and {@code 100})
+     * @param minTableCases the minimum number of case values of a cluster which is dispatched
+     *        by a {@code tableswitch} (must be at least {@code 1})
+     */
+    public static SwitchCostModel of(int minTableDensity, int minTableCases) {
+        if (minTableDensity < 1 || minTableDensity > 100) {
+            throw new IllegalArgumentException("Minimum table density must be between 1 and 100");
+        }
+        if (minTableCases < 1) {
+            throw new IllegalArgumentException("Minimum table case count must be at least 1");
+        }
+        return new SwitchCostModel(minTableDensity, minTableCases);
+    }
+
+    /**
+     * {@return the minimum percentage of the range of a cluster which must be occupied by case values
+     * for the cluster to be dispatched by a {@code tableswitch}}
+     */
+    public int minTableDensity() {
+        return minTableDensity;
+    }
+
+    /**
+     * {@return the minimum number of case values of a cluster which is dispatched by a {@code tableswitch}}
+     */
+    public int minTableCases() {
+        return minTableCases;
+    }
+
+    public String toString() {
+        return "SwitchCostModel[minTableDensity=" + minTableDensity + "%, minTableCases=" + minTableCases + "]";
+    }
+}
@@ -3156,6 +3156,9 @@ public sealed interface BlockCreator extends SimpleTyped permits BlockCreatorImp
      * </ul>
      * The type of the {@code switch} creator depends on the type of the value.
      * For {@code enum} switches, use {@link #switchEnum(Expr, Consumer)}.
+     * The case classes of a {@code java.lang.Class} switch are compared by identity, so they are resolved
+     * before a matching case is found, and every case class must be present at run time.
+     * A {@code null} switch value causes a {@link NullPointerException}.
      *
      * @param val the value to switch on (must not be {@code null})
      * @param builder the builder for the {@code switch} statement (must not be {@code null})
@@ -3175,6 +3178,9 @@ public sealed interface BlockCreator extends SimpleTyped permits BlockCreatorImp
      * </ul>
      * The type of the {@code switch} creator depends on the type of the value.
      * For {@code enum} switches, use {@link #switchEnum(Expr, Consumer)}.
+     * The case classes of a {@code java.lang.Class} switch are compared by identity, so they are resolved
+     * before a matching case is found, and every case class must be present at run time.
+     * A {@code null} switch value causes a {@link NullPointerException}.
      *
      * @param outputType the output type of this {@code switch} (must not be {@code null})
      * @param val the value to switch on (must not be {@code null})
@@ -3194,6 +3200,9 @@ public sealed interface BlockCreator extends SimpleTyped permits BlockCreatorImp
      * </ul>
      * The type of the {@code switch} creator depends on the type of the value.
      * For {@code enum} switches, use {@link #switchEnum(Expr, Consumer)}.
+     * The case classes of a {@code java.lang.Class} switch are compared by identity, so they are resolved
+     * before a matching case is found, and every case class must be present at run time.
+     * A {@code null} switch value causes a {@link NullPointerException}.
      *
      * @param outputType the output type of this {@code switch} (must not be {@code null})
      * @param val the value to switch on (must not be {@code null})
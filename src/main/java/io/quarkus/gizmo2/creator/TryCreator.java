@@ -5,6 +5,7 @@ import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import io.quarkus.gizmo2.FinallyStrategy;
 import io.quarkus.gizmo2.LocalVar;
 import io.quarkus.gizmo2.impl.TryCreatorImpl;
 
@@ -64,8 +65,20 @@ public sealed interface TryCreator extends BodyCreator permits TryCreatorImpl {
      * Add the {@code finally} clause.
      * Note that the builder will be called <em>multiple times</em>
      * if there are multiple exit points to the method (which is usually the case).
+     * The block is translated using the {@linkplain io.quarkus.gizmo2.Gizmo#withFinallyStrategy(FinallyStrategy)
+     * configured strategy}.
      *
      * @param builder the builder for the {@code finally} block (must not be {@code null})
      */
     void finally_(Consumer<BlockCreator> builder);
+
+    /**
+     * Add the {@code finally} clause, translated using the given strategy.
+     * Note that the builder may be called <em>multiple times</em>, even when the
+     * {@linkplain FinallyStrategy#SHARED shared strategy} is used.
+     *
+     * @param strategy the translation strategy for this {@code finally} block (must not be {@code null})
+     * @param builder the builder for the {@code finally} block (must not be {@code null})
+     */
+    void finally_(FinallyStrategy strategy, Consumer<BlockCreator> builder);
 }
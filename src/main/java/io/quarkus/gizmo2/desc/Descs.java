@@ -18,6 +18,10 @@ import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandles;
 import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
@@ -29,6 +33,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -157,8 +162,23 @@ public final class Descs {
     // java.util.concurrent
     //-----------------------------------------------------
 
+    public static final ClassDesc CD_ConcurrentHashMap = Util.classDesc(ConcurrentHashMap.class);
     public static final ClassDesc CD_Lock = Util.classDesc(Lock.class);
 
+    //-----------------------------------------------------
+    // java.nio
+    //-----------------------------------------------------
+
+    public static final ClassDesc CD_ByteBuffer = Util.classDesc(ByteBuffer.class);
+    public static final ClassDesc CD_CharBuffer = Util.classDesc(CharBuffer.class);
+
+    //-----------------------------------------------------
+    // java.nio.charset
+    //-----------------------------------------------------
+
+    public static final ClassDesc CD_Charset = Util.classDesc(Charset.class);
+    public static final ClassDesc CD_StandardCharsets = Util.classDesc(StandardCharsets.class);
+
     //-----------------------------------------------------
     // java.util.function
     //-----------------------------------------------------
@@ -218,6 +238,16 @@ public final class Descs {
                 CD_boolean);
         public static final ClassMethodDesc getResourceAsStream = ClassMethodDesc.of(CD_Class, "getResourceAsStream",
                 CD_InputStream, CD_String);
+        public static final ClassMethodDesc getEnumConstants = ClassMethodDesc.of(CD_Class, "getEnumConstants",
+                CD_Object_array);
+    }
+
+    public static final class MD_Enum {
+        private MD_Enum() {
+        }
+
+        public static final ClassMethodDesc name = ClassMethodDesc.of(CD_Enum, "name", CD_String);
+        public static final ClassMethodDesc ordinal = ClassMethodDesc.of(CD_Enum, "ordinal", CD_int);
     }
 
     public static final class MD_String {
@@ -261,6 +291,10 @@ public final class Descs {
         public static final ClassMethodDesc length = ClassMethodDesc.of(CD_String, "length", CD_int);
         public static final ClassMethodDesc substring_1 = ClassMethodDesc.of(CD_String, "substring", CD_String, CD_int);
         public static final ClassMethodDesc substring_2 = ClassMethodDesc.of(CD_String, "substring", CD_String, CD_int, CD_int);
+        public static final ClassMethodDesc getBytes_Charset = ClassMethodDesc.of(CD_String, "getBytes", CD_byte_array,
+                CD_Charset);
+        public static final ClassMethodDesc join = ClassMethodDesc.of(CD_String, "join", CD_String, CD_CharSequence,
+                CD_CharSequence.arrayType());
     }
 
     public static final class MD_StringBuilder {
@@ -524,6 +558,7 @@ public final class Descs {
         }
 
         public static final ClassMethodDesc read = ClassMethodDesc.of(CD_InputStream, "read", CD_int);
+        public static final ClassMethodDesc readAllBytes = ClassMethodDesc.of(CD_InputStream, "readAllBytes", CD_byte_array);
     }
 
     public static final class MD_PrintStream {
@@ -534,6 +569,41 @@ public final class Descs {
                 CD_Object_array);
     }
 
+    //-----------------------------------------------------
+    // java.nio
+    //-----------------------------------------------------
+
+    public static final class MD_ByteBuffer {
+        private MD_ByteBuffer() {
+        }
+
+        public static final ClassMethodDesc wrap = ClassMethodDesc.of(CD_ByteBuffer, "wrap", CD_ByteBuffer, CD_byte_array);
+        public static final ClassMethodDesc getInt = ClassMethodDesc.of(CD_ByteBuffer, "getInt", CD_int);
+        public static final ClassMethodDesc position = ClassMethodDesc.of(CD_ByteBuffer, "position", CD_int);
+        public static final ClassMethodDesc position_int = ClassMethodDesc.of(CD_ByteBuffer, "position", CD_ByteBuffer,
+                CD_int);
+        public static final ClassMethodDesc asCharBuffer = ClassMethodDesc.of(CD_ByteBuffer, "asCharBuffer", CD_CharBuffer);
+    }
+
+    public static final class MD_CharBuffer {
+        private MD_CharBuffer() {
+        }
+
+        public static final ClassMethodDesc limit = ClassMethodDesc.of(CD_CharBuffer, "limit", CD_CharBuffer, CD_int);
+    }
+
+    //-----------------------------------------------------
+    // java.nio.charset
+    //-----------------------------------------------------
+
+    public static final class FD_StandardCharsets {
+        private FD_StandardCharsets() {
+        }
+
+        public static final FieldDesc ISO_8859_1 = FieldDesc.of(CD_StandardCharsets, "ISO_8859_1", CD_Charset);
+        public static final FieldDesc UTF_8 = FieldDesc.of(CD_StandardCharsets, "UTF_8", CD_Charset);
+    }
+
     //-----------------------------------------------------
     // java.util
     //-----------------------------------------------------
@@ -555,6 +625,8 @@ public final class Descs {
         public static final InterfaceMethodDesc remove = InterfaceMethodDesc.of(CD_Collection, "remove", CD_boolean, CD_Object);
         public static final InterfaceMethodDesc removeAll = InterfaceMethodDesc.of(CD_Collection, "removeAll",
                 CD_boolean, CD_Collection);
+        public static final InterfaceMethodDesc toArray = InterfaceMethodDesc.of(CD_Collection, "toArray", CD_Object_array,
+                CD_Object_array);
     }
 
     public static final class MD_List {
@@ -702,6 +774,8 @@ public final class Descs {
 
         public static final InterfaceMethodDesc get = InterfaceMethodDesc.of(CD_Map, "get", CD_Object, CD_Object);
         public static final InterfaceMethodDesc put = InterfaceMethodDesc.of(CD_Map, "put", CD_Object, CD_Object, CD_Object);
+        public static final InterfaceMethodDesc putIfAbsent = InterfaceMethodDesc.of(CD_Map, "putIfAbsent", CD_Object,
+                CD_Object, CD_Object);
         public static final InterfaceMethodDesc remove = InterfaceMethodDesc.of(CD_Map, "remove", CD_Object, CD_Object);
         public static final InterfaceMethodDesc isEmpty = InterfaceMethodDesc.of(CD_Map, "isEmpty", CD_boolean);
         public static final InterfaceMethodDesc size = InterfaceMethodDesc.of(CD_Map, "size", CD_int);
@@ -836,6 +910,9 @@ public final class Descs {
                 CD_Object_array);
         public static final ClassMethodDesc deepToString = ClassMethodDesc.of(CD_Arrays, "deepToString", CD_String,
                 CD_Object_array);
+
+        public static final ClassMethodDesc copyOfRange_byte = ClassMethodDesc.of(CD_Arrays, "copyOfRange", CD_byte_array,
+                CD_byte_array, CD_int, CD_int);
     }
 
     public static final class MD_Objects {
@@ -0,0 +1,189 @@
+package io.quarkus.gizmo2.impl;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.quarkus.gizmo2.AsyncClassOutput;
+import io.quarkus.gizmo2.ClassOutput;
+
+/**
+ * A class output which queues every call to a delegate output, which is called from one or more writer threads.
+ * If more than one writer thread is used, the delegate must be thread-safe.
+ */
+public final class AsyncClassOutputImpl implements AsyncClassOutput {
+    private static final AtomicInteger outputCount = new AtomicInteger();
+    private static final Runnable STOP = () -> {
+    };
+
+    private final ClassOutput delegate;
+    private final ArrayBlockingQueue<Runnable> queue;
+    private final int threadCount;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    /**
+     * The number of calls which were accepted but not yet completed (guarded by {@link #lock}).
+     */
+    private int pending;
+    /**
+     * Set when the output is closed (guarded by {@link #lock}).
+     */
+    private boolean closed;
+    /**
+     * The first failure of the delegate, if any.
+     */
+    private volatile Throwable failure;
+
+    public AsyncClassOutputImpl(final ClassOutput delegate, final int threadCount, final int capacity) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.delegate = delegate;
+        this.threadCount = threadCount;
+        // leave room for the stop signals
+        queue = new ArrayBlockingQueue<>(capacity + threadCount);
+        int id = outputCount.incrementAndGet();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(this::runWriter, "gizmo-writer-%d-%d".formatted(id, i));
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public void write(final ClassDesc desc, final byte[] bytes) {
+        submit(() -> delegate.write(desc, bytes));
+    }
+
+    public void writeSource(final ClassDesc desc, final String source) {
+        submit(() -> delegate.writeSource(desc, source));
+    }
+
+    public void write(final String path, final byte[] bytes) {
+        submit(() -> delegate.write(path, bytes));
+    }
+
+    public void registerBootstrapMethod(final ClassDesc owner, final String name, final MethodTypeDesc type) {
+        submit(() -> delegate.registerBootstrapMethod(owner, name, type));
+    }
+
+    public void flush() {
+        awaitIdle();
+        checkFailure();
+    }
+
+    public void close() {
+        ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            while (pending > 0) {
+                idle.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // no more tasks can be accepted; stop the writers
+        for (int i = 0; i < threadCount; i++) {
+            // cannot block, because the queue has room for every stop signal
+            queue.add(STOP);
+        }
+        checkFailure();
+    }
+
+    private void submit(final Runnable task) {
+        ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Output is closed");
+            }
+            checkFailure();
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+        // wait for room outside the lock, so that writers can complete their tasks
+        boolean intr = false;
+        try {
+            for (;;) {
+                try {
+                    queue.put(task);
+                    return;
+                } catch (InterruptedException e) {
+                    intr = true;
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void awaitIdle() {
+        ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            while (pending > 0) {
+                idle.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkFailure() {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            throw new IllegalStateException("Failed to write output", failure);
+        }
+    }
+
+    private void runWriter() {
+        for (;;) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                // writers are stopped by signal only
+                continue;
+            }
+            if (task == STOP) {
+                return;
+            }
+            try {
+                // once failed, drain the remaining tasks without running them
+                if (failure == null) {
+                    task.run();
+                }
+            } catch (Throwable t) {
+                synchronized (this) {
+                    if (failure == null) {
+                        failure = t;
+                    } else {
+                        failure.addSuppressed(t);
+                    }
+                }
+            } finally {
+                ReentrantLock lock = this.lock;
+                lock.lock();
+                try {
+                    if (--pending == 0) {
+                        idle.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.quarkus.gizmo2.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.quarkus.gizmo2.ClassOutput;
+import io.smallrye.common.resource.ResourceUtils;
+
+/**
+ * A thread-safe class output which writes each file atomically into a base directory.
+ * Each file is first written to a temporary file in the same directory, which is then renamed
+ * over the target, so that readers never observe a partially written file.
+ * Directories which were already created are remembered, so that they are only created once.
+ */
+public final class AtomicFileClassOutput implements ClassOutput {
+    private final Path basePath;
+    private final ConcurrentHashMap<Path, Boolean> directories = new ConcurrentHashMap<>();
+
+    public AtomicFileClassOutput(final Path basePath) {
+        this.basePath = basePath;
+    }
+
+    public void write(final String name, final byte[] bytes) {
+        Path path = basePath.resolve(ResourceUtils.canonicalizeRelativePath(name));
+        Path tmp = null;
+        try {
+            Path dir = path.getParent();
+            // concurrent writers to the same directory wait until it is created
+            directories.computeIfAbsent(dir, AtomicFileClassOutput::createDirectories);
+            tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes);
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalArgumentException("Failed to write class %s".formatted(name), e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static Boolean createDirectories(final Path dir) {
+        try {
+            Files.createDirectories(dir);
+            return Boolean.TRUE;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
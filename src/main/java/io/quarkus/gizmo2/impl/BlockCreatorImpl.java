@@ -14,7 +14,6 @@ import java.lang.constant.DynamicCallSiteDesc;
 import java.lang.constant.MethodHandleDesc;
 import java.lang.constant.MethodTypeDesc;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map.Entry;
@@ -34,11 +33,14 @@ import io.quarkus.gizmo2.InvokeKind;
 import io.quarkus.gizmo2.LambdaStrategy;
 import io.quarkus.gizmo2.LocalVar;
 import io.quarkus.gizmo2.MemoryOrder;
+import io.quarkus.gizmo2.StaticFieldVar;
 import io.quarkus.gizmo2.TypeKind;
 import io.quarkus.gizmo2.Var;
+import io.quarkus.gizmo2.creator.AccessLevel;
 import io.quarkus.gizmo2.creator.AnonymousClassCreator;
 import io.quarkus.gizmo2.creator.BlockCreator;
 import io.quarkus.gizmo2.creator.LambdaCreator;
+import io.quarkus.gizmo2.creator.ModifierFlag;
 import io.quarkus.gizmo2.creator.SwitchCreator;
 import io.quarkus.gizmo2.creator.TryCreator;
 import io.quarkus.gizmo2.desc.ConstructorDesc;
@@ -65,6 +67,7 @@ import io.quarkus.gizmo2.desc.Descs.MD_Set;
 import io.quarkus.gizmo2.desc.Descs.MD_Short;
 import io.quarkus.gizmo2.desc.Descs.MD_String;
 import io.quarkus.gizmo2.desc.Descs.MD_Thread;
+import io.quarkus.gizmo2.desc.FieldDesc;
 import io.quarkus.gizmo2.desc.InterfaceMethodDesc;
 import io.quarkus.gizmo2.desc.MethodDesc;
 import io.quarkus.gizmo2.impl.constant.ConstImpl;
@@ -77,6 +80,7 @@ import io.smallrye.classfile.Label;
 import io.smallrye.classfile.MethodModel;
 import io.smallrye.classfile.Opcode;
 import io.smallrye.classfile.TypeAnnotation;
+import io.smallrye.classfile.attribute.NestHostAttribute;
 import io.smallrye.common.constraint.Assert;
 
 /**
@@ -91,8 +95,9 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     /**
      * The outermost code builder.
      * This should only be used for creating new labels and other context-independent things.
+     * It is changed by {@link #retarget(CodeBuilder)} when the block is moved into another method.
      */
-    private final CodeBuilder outerCodeBuilder;
+    private CodeBuilder outerCodeBuilder;
     private final BlockCreatorImpl parent;
     private final int depth;
     /**
@@ -114,7 +119,26 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         return items;
     }
 
+    /**
+     * The live ranges of the local variables of this block, or {@code null} if slots are not reused.
+     * This is only set while the code of this block is being written.
+     */
+    private LiveRanges liveRanges;
+    /**
+     * The last reachable item of this block, or {@code null} if all items are reachable.
+     * This is set when an item which cannot fall through is added by constant folding (or a nested block
+     * which only cannot fall through because of constant folding is added), in which case the
+     * block remains active so that it may be completed normally, but all subsequent items are dead and
+     * are never written.
+     */
+    private Item reachableEnd;
+
     private boolean breakTarget;
+    /**
+     * Set if this block is the target of a {@code break} statement which is never written because it is dead code.
+     * Such a block may still fall through as written, but not in the emitted code.
+     */
+    private boolean deadBreakTarget;
     private boolean branchTarget;
 
     /**
@@ -139,8 +163,12 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
      */
     TryFinally tryFinally;
     private int state;
-    private final Label startLabel;
-    private final Label endLabel;
+    /**
+     * The labels of this block, which are created on first use, so that the block may still be
+     * {@linkplain #retarget(CodeBuilder) moved} into another method before the code is written.
+     */
+    private Label startLabel;
+    private Label endLabel;
     private final Item input;
     private final ClassDesc outputType;
     private final ClassDesc returnType;
@@ -184,8 +212,6 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         depth = parent == null ? 0 : parent.depth + 1;
         this.methodNameForLambdas = methodNameForLambdas;
         postInits = parent == null ? List.of() : parent.postInits;
-        startLabel = newLabel();
-        endLabel = newLabel();
         this.input = input;
         if (Util.isVoid(inputType)) {
             items.add(BlockHeader.VOID);
@@ -207,6 +233,27 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         return owner;
     }
 
+    /**
+     * {@return the bootstrap method which assembles large collection constants in the class that owns this block}
+     */
+    public DirectMethodHandleDesc collectionConstantBootstrap() {
+        return owner.buildCollectionConstantBootstrap();
+    }
+
+    /**
+     * {@return the bootstrap method which decodes primitive array constants in the class that owns this block}
+     */
+    public DirectMethodHandleDesc arrayConstantBootstrap() {
+        return owner.buildArrayConstantBootstrap();
+    }
+
+    /**
+     * {@return the bootstrap method which creates {@code enum} switch ordinal maps in the class that owns this block}
+     */
+    DirectMethodHandleDesc enumSwitchBootstrap() {
+        return owner.buildEnumSwitchBootstrap();
+    }
+
     /**
      * This method should be used to look up the enclosing {@code TryFinally} inside
      * {@link Item#writeCode(CodeBuilder, BlockCreatorImpl, StackMapBuilder)}. The {@code tryFinally} field is set late
@@ -228,6 +275,19 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         return outerCodeBuilder.newLabel();
     }
 
+    /**
+     * Change the code builder which is used to create new labels for this block.
+     * This is used when the items of this block are written into a different method.
+     *
+     * @param codeBuilder the new outermost code builder (must not be {@code null})
+     * @return the previous outermost code builder (not {@code null})
+     */
+    CodeBuilder retarget(final CodeBuilder codeBuilder) {
+        CodeBuilder old = outerCodeBuilder;
+        outerCodeBuilder = codeBuilder;
+        return old;
+    }
+
     ClassDesc returnType() {
         return returnType;
     }
@@ -280,7 +340,18 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         if (active()) {
             //throw new IllegalStateException();
         }
-        return breakTarget || getLast().mayFallThrough();
+        return breakTarget || reachableEnd == null && getLast().mayFallThrough();
+    }
+
+    /**
+     * {@return {@code true} if this block may fall through as written, including any code which is never emitted}
+     */
+    boolean mayFallThroughAsWritten() {
+        if (breakTarget || deadBreakTarget) {
+            return true;
+        }
+        Item last = getLast();
+        return last instanceof BlockCreatorImpl bci ? bci.mayFallThroughAsWritten() : last.mayFallThrough();
     }
 
     public void pop(final ListIterator<Item> itr) {
@@ -288,7 +359,7 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
             super.pop(itr);
             return;
         }
-        assert mayFallThrough();
+        assert reachableEnd != null || mayFallThrough();
         // else, pop *our* result
         if (breakTarget) {
             // need an explicit pop node
@@ -534,6 +605,12 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     private Expr relZero(final Expr a, final If.Kind kind) {
         switch (a.typeKind().asLoadable()) {
             case INT, REFERENCE -> {
+                ConstImpl folded = ConstantFolding.foldRelZero((Item) a, kind);
+                if (folded != null) {
+                    checkActive();
+                    removeFolded(a);
+                    return folded;
+                }
                 // normal relZero
                 return addItem(new RelZero(a, kind));
             }
@@ -570,6 +647,13 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
                 } else if (b instanceof IntConst bc && bc.intValue() == 0) {
                     return relZero(a, kind);
                 } else {
+                    ConstImpl folded = ConstantFolding.foldRel((Item) a, (Item) b, kind);
+                    if (folded != null) {
+                        checkActive();
+                        removeFolded(a);
+                        removeFolded(b);
+                        return folded;
+                    }
                     return addItem(new Rel(a, b, kind));
                 }
             }
@@ -619,27 +703,77 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     public Expr cmp(final Expr a, final Expr b) {
-        return addItem(new Cmp(a, b, Cmp.Kind.CMP));
+        return cmp(a, b, Cmp.Kind.CMP);
     }
 
     public Expr cmpl(final Expr a, final Expr b) {
-        return addItem(new Cmp(a, b, Cmp.Kind.CMPL));
+        return cmp(a, b, Cmp.Kind.CMPL);
     }
 
     public Expr cmpg(final Expr a, final Expr b) {
-        return addItem(new Cmp(a, b, Cmp.Kind.CMPG));
+        return cmp(a, b, Cmp.Kind.CMPG);
+    }
+
+    private Expr binOp(final Expr a, final Expr b, final BinOp.Kind kind) {
+        checkActive();
+        BinOp binOp = new BinOp(a, b, kind);
+        ConstImpl folded = ConstantFolding.fold(binOp);
+        if (folded == null) {
+            return addItem(binOp);
+        }
+        removeFolded(a);
+        removeFolded(b);
+        return folded;
+    }
+
+    private Expr cmp(final Expr a, final Expr b, final Cmp.Kind kind) {
+        checkActive();
+        Cmp cmp = new Cmp(a, b, kind);
+        ConstImpl folded = ConstantFolding.fold(cmp);
+        if (folded == null) {
+            return addItem(cmp);
+        }
+        removeFolded(a);
+        removeFolded(b);
+        return folded;
+    }
+
+    /**
+     * Remove an operand of a folded operation from the item list, so that it is not written and then popped.
+     * Only primitive casts of constants can be folded while they are in the item list,
+     * and they have no side effects.
+     *
+     * @param operand the folded operand (must not be {@code null})
+     */
+    private void removeFolded(final Expr operand) {
+        if (operand instanceof PrimitiveCast pc) {
+            ListIterator<Item> itr = iterator();
+            while (itr.hasPrevious()) {
+                if (itr.previous() == pc) {
+                    itr.next();
+                    if (pc.a instanceof PrimitiveCast) {
+                        pc.remove(itr);
+                        removeFolded(pc.a);
+                    } else {
+                        // also removes the constant operand
+                        pc.revoke(itr);
+                    }
+                    return;
+                }
+            }
+        }
     }
 
     public Expr and(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.AND));
+        return binOp(a, b, BinOp.Kind.AND);
     }
 
     public Expr or(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.OR));
+        return binOp(a, b, BinOp.Kind.OR);
     }
 
     public Expr xor(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.XOR));
+        return binOp(a, b, BinOp.Kind.XOR);
     }
 
     public Expr complement(final Expr a) {
@@ -647,38 +781,38 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     public Expr shl(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.SHL));
+        return binOp(a, b, BinOp.Kind.SHL);
     }
 
     public Expr shr(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.SHR));
+        return binOp(a, b, BinOp.Kind.SHR);
     }
 
     public Expr ushr(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.USHR));
+        return binOp(a, b, BinOp.Kind.USHR);
     }
 
     public Expr add(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.ADD));
+        return binOp(a, b, BinOp.Kind.ADD);
     }
 
     public Expr sub(final Expr a, final Expr b) {
         if (a instanceof ConstImpl c && c.isZero()) {
             return neg(b);
         }
-        return addItem(new BinOp(a, b, BinOp.Kind.SUB));
+        return binOp(a, b, BinOp.Kind.SUB);
     }
 
     public Expr mul(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.MUL));
+        return binOp(a, b, BinOp.Kind.MUL);
     }
 
     public Expr div(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.DIV));
+        return binOp(a, b, BinOp.Kind.DIV);
     }
 
     public Expr rem(final Expr a, final Expr b) {
-        return addItem(new BinOp(a, b, BinOp.Kind.REM));
+        return binOp(a, b, BinOp.Kind.REM);
     }
 
     public Expr neg(final Expr a) {
@@ -686,7 +820,35 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     public Expr lambda(final MethodDesc sam, final ClassDesc samOwner, final Consumer<LambdaCreator> builder) {
-        if (owner.gizmo.lambdaStrategy() == LambdaStrategy.ANONYMOUS_CLASS) {
+        owner.lambdaCount++;
+        LambdaDefinedEvent event = new LambdaDefinedEvent();
+        event.begin();
+        LambdaStrategy strategy = lambdaStrategy();
+        Expr lambda = defineLambda(strategy, sam, samOwner, builder);
+        if (event.shouldCommit()) {
+            event.owner = Util.binaryName(owner.type());
+            event.type = Util.binaryName(samOwner);
+            event.strategy = strategy.name();
+            event.commit();
+        }
+        return lambda;
+    }
+
+    /**
+     * {@return the strategy which is used to define lambdas}
+     * The classic strategy replaces the optimized strategies when debugging.
+     */
+    private LambdaStrategy lambdaStrategy() {
+        LambdaStrategy strategy = owner.gizmo.lambdaStrategy();
+        if (Util.debug && strategy != LambdaStrategy.ANONYMOUS_CLASS && strategy != LambdaStrategy.NESTMATE_CLASS) {
+            return LambdaStrategy.CLASSIC;
+        }
+        return strategy;
+    }
+
+    private Expr defineLambda(final LambdaStrategy strategy, final MethodDesc sam, final ClassDesc samOwner,
+            final Consumer<LambdaCreator> builder) {
+        if (strategy == LambdaStrategy.ANONYMOUS_CLASS) {
             return newAnonymousClass(samOwner, acc -> {
                 acc.method(sam, imc -> {
                     builder.accept(new LambdaAsAnonClassCreatorImpl(
@@ -695,16 +857,73 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
             });
         }
 
-        if (Util.debug || owner.gizmo.lambdaStrategy() == LambdaStrategy.CLASSIC) {
+        if (strategy == LambdaStrategy.NESTMATE_CLASS) {
+            return nestmateLambda(sam, samOwner, builder);
+        }
+
+        if (strategy == LambdaStrategy.CLASSIC) {
             return classicLambda(sam, samOwner, builder);
         }
 
         ClassDesc ownerDesc = owner.type();
         String ds = ownerDesc.descriptorString();
         ClassDesc desc = ClassDesc.ofDescriptor(ds.substring(0, ds.length() - 1) + "$lambda;");
-        ClassFile cf = owner.gizmo.createClassFile();
         final ArrayList<Expr> captureExprs = new ArrayList<>();
-        byte[] bytes = cf.build(desc, zb -> {
+        byte[] bytes = buildLambdaClass(desc, sam, builder, captureExprs, tc -> {
+        });
+        MethodTypeDesc ctorType = MethodTypeDesc.of(
+                samOwner,
+                captureExprs.stream().map(Expr::type).toArray(ClassDesc[]::new));
+        return invokeDynamic(DynamicCallSiteDesc.of(
+                owner.buildLambdaBootstrap(),
+                sam.name(),
+                ctorType,
+                owner.lambdaClassConstant(bytes),
+                owner.lambdaHandleCacheConstant()), captureExprs);
+    }
+
+    private Expr nestmateLambda(MethodDesc sam, ClassDesc samOwner, Consumer<LambdaCreator> builder) {
+        ClassDesc ownerDesc = owner.type();
+        int idx = owner.lambdaAndAnonClassCounter++;
+        String ds = ownerDesc.descriptorString();
+        ClassDesc desc = ClassDesc.ofDescriptor(ds.substring(0, ds.length() - 1) + "$lambda$" + idx + ";");
+        final ArrayList<Expr> captureExprs = new ArrayList<>();
+        byte[] bytes = buildLambdaClass(desc, sam, builder, captureExprs, tc -> {
+            tc.modifiers |= ClassFile.ACC_SYNTHETIC;
+            if (captureExprs.isEmpty()) {
+                // non-capturing lambdas are singletons
+                StaticFieldVar instance = tc.staticField("INSTANCE", ifc -> {
+                    ifc.setType(desc);
+                    ifc.setAccess(AccessLevel.PRIVATE);
+                    ifc.addFlag(ModifierFlag.FINAL);
+                });
+                tc.staticInitializer(b0 -> {
+                    b0.set(instance, b0.new_(ConstructorDesc.of(desc)));
+                });
+            }
+            owner.addNestMember(desc);
+            tc.zb.with(NestHostAttribute.of(owner.topLevel().type()));
+        });
+        owner.output().write(desc, bytes);
+        if (captureExprs.isEmpty()) {
+            return get(Expr.staticField(FieldDesc.of(desc, "INSTANCE", desc)));
+        }
+        return new_(ConstructorDesc.of(desc, captureExprs.stream().map(Expr::type).toList()), captureExprs);
+    }
+
+    /**
+     * Build a class which implements a lambda.
+     *
+     * @param desc the lambda class (must not be {@code null})
+     * @param sam the functional interface method (must not be {@code null})
+     * @param builder the lambda builder (must not be {@code null})
+     * @param captureExprs the list to which the captured values are added (must not be {@code null})
+     * @param finisher an action which is run after the lambda body and constructor are defined (must not be {@code null})
+     * @return the bytes of the lambda class (not {@code null})
+     */
+    private byte[] buildLambdaClass(final ClassDesc desc, final MethodDesc sam, final Consumer<LambdaCreator> builder,
+            final ArrayList<Expr> captureExprs, final Consumer<AnonymousClassCreatorImpl> finisher) {
+        return owner.gizmo.build(desc, zb -> {
             zb.withVersion(owner.version().major(), 0);
             AnonymousClassCreatorImpl tc = new AnonymousClassCreatorImpl(owner.gizmo, desc, owner.output(), zb, owner,
                     ConstructorDesc.of(Object.class), captureExprs);
@@ -721,26 +940,11 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
                 tc.constructor(cc -> {
                     tc.ctorSetups().forEach(action -> action.accept(cc));
                 });
+                finisher.accept(tc);
                 tc.postAccept();
             });
+            return tc;
         });
-        owner.buildLambdaBootstrap();
-        String encoded = Base64.getUrlEncoder().encodeToString(bytes);
-        MethodTypeDesc ctorType = MethodTypeDesc.of(
-                samOwner,
-                captureExprs.stream().map(Expr::type).toArray(ClassDesc[]::new));
-        return invokeDynamic(DynamicCallSiteDesc.of(
-                MethodHandleDesc.ofMethod(
-                        DirectMethodHandleDesc.Kind.STATIC,
-                        ownerDesc,
-                        "defineLambdaCallSite",
-                        MethodTypeDesc.of(
-                                CD_CallSite,
-                                CD_MethodHandles_Lookup,
-                                CD_String,
-                                CD_MethodType)),
-                encoded,
-                ctorType), captureExprs);
     }
 
     private Expr classicLambda(MethodDesc sam, ClassDesc samOwner, Consumer<LambdaCreator> builder) {
@@ -775,7 +979,7 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         ClassFile cf = owner.gizmo.createClassFile();
         final ArrayList<Expr> captureExprs = new ArrayList<>();
 
-        byte[] bytes = cf.build(desc, zb -> {
+        byte[] bytes = owner.gizmo.build(desc, zb -> {
             zb.withVersion(owner.version().major(), 0);
             AnonymousClassCreatorImpl tc = new AnonymousClassCreatorImpl(owner.gizmo, desc, owner.output(), zb, owner,
                     superCtor, captureExprs);
@@ -787,6 +991,7 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
             });
             owner.registerNestedType(tc, null, 0);
             tc.postAccept();
+            return tc;
         });
         ClassModel cm = cf.parse(bytes);
         List<MethodModel> methods = cm.methods();
@@ -1076,7 +1281,7 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         }
         ListIterator<Item> itr = iterator();
         Item last = Util.peekPrevious(itr);
-        if (last instanceof Yield yield) {
+        if (last instanceof Yield yield && reachableEnd == null) {
             Expr val = yield.value();
             if (val.typeKind() != typeKind()) {
                 if (val.typeKind() == TypeKind.VOID) {
@@ -1107,7 +1312,32 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         doIf(instanceOf(obj, type), bc -> ifTrue.accept(bc, bc.localVar("$$instance" + depth, bc.cast(obj, type))), ifFalse);
     }
 
-    private If doIfInsn(final ClassDesc type, final Expr cond, final BlockCreatorImpl wt, final BlockCreatorImpl wf) {
+    private Item doIfInsn(final ClassDesc type, final Expr cond, final BlockCreatorImpl wt, final BlockCreatorImpl wf) {
+        Boolean constant = ConstantFolding.conditionValue((Item) cond);
+        if (constant != null) {
+            BlockCreatorImpl taken = constant.booleanValue() ? wt : wf;
+            BlockCreatorImpl other = constant.booleanValue() ? wf : wt;
+            // only the taken branch is kept
+            if (taken == null) {
+                checkActive();
+                return ConstImpl.ofVoid();
+            } else if (taken.mayFallThrough()
+                    || !taken.mayFallThroughAsWritten() && other != null && !other.mayFallThroughAsWritten()) {
+                return addItem(taken);
+            } else {
+                // the `if` might have fallen through as written, but the taken branch does not;
+                // keep the block open so that it can be completed as written, but do not emit the rest
+                checkActive();
+                ListIterator<Item> itr = iterator();
+                owner.itemCount++;
+                taken.insert(itr);
+                taken.forEachDependency(itr, Item::insertIfUnbound);
+                if (reachableEnd == null) {
+                    reachableEnd = taken;
+                }
+                return taken;
+            }
+        }
         // try to combine the condition into the `if`
         if (((Item) cond).bound()) {
             ListIterator<Item> itr = iterator();
@@ -1179,7 +1409,12 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     public void break_(final BlockCreator outer) {
-        ((BlockCreatorImpl) outer).breakTarget = true;
+        if (isDeadUpTo((BlockCreatorImpl) outer)) {
+            // this `break` is never written
+            ((BlockCreatorImpl) outer).deadBreakTarget = true;
+        } else {
+            ((BlockCreatorImpl) outer).breakTarget = true;
+        }
         if (outer != this) {
             addItem(new Break(outer));
         }
@@ -1546,9 +1781,15 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         if (branchTarget) {
             smb.addFrameInfo(cb);
         }
+        if (owner.gizmo.peephole()) {
+            Peephole.optimize(items);
+        }
+        // exits from a `try` body share cleanup code, whose frame must be valid for every exit
+        liveRanges = owner.gizmo.localSlotReuse() && tryFinally() == null ? LiveRanges.compute(this) : null;
         cb.block(bcb -> {
-            bcb.labelBinding(startLabel);
+            bcb.labelBinding(startLabel());
             List<Item> items = this.items;
+            LiveRanges liveRanges = this.liveRanges;
             int sz = items.size();
             int lastSourceLine = -1;
             for (int i = 0; i < sz; i++) {
@@ -1558,9 +1799,17 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
                     lastSourceLine = item.sourceLine;
                 }
                 item.writeCode(bcb, this, smb);
+                if (item == reachableEnd) {
+                    // the rest is dead code
+                    break;
+                }
+                if (liveRanges != null) {
+                    liveRanges.afterItem(i, bcb, smb);
+                }
             }
-            bcb.labelBinding(endLabel);
+            bcb.labelBinding(endLabel());
         });
+        liveRanges = null;
         smb.restore(saved);
         if (!Util.isVoid(input.type())) {
             // consume argument
@@ -1579,7 +1828,11 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
         List<Item> items = this.items;
         int sz = items.size();
         for (int i = 0; i < sz; i++) {
-            items.get(i).writeAnnotations(retention, annotations);
+            Item item = items.get(i);
+            item.writeAnnotations(retention, annotations);
+            if (item == reachableEnd) {
+                break;
+            }
         }
     }
 
@@ -1595,9 +1848,15 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     private <I extends Item> I addItemUnchecked(final I item, final ListIterator<Item> itr) {
+        owner.itemCount++;
         item.insert(itr);
         item.forEachDependency(itr, Item::insertIfUnbound);
-        if (!item.mayFallThrough() || item instanceof Yield) {
+        if (item instanceof BlockCreatorImpl bci && !bci.mayFallThrough() && bci.mayFallThroughAsWritten()) {
+            // the nested block only ends in dead code; keep this block open as written
+            if (reachableEnd == null) {
+                reachableEnd = item;
+            }
+        } else if (!item.mayFallThrough() || item instanceof Yield) {
             markDone();
         }
         return item;
@@ -1627,13 +1886,51 @@ public final class BlockCreatorImpl extends Item implements BlockCreator {
     }
 
     Label startLabel() {
+        Label startLabel = this.startLabel;
+        if (startLabel == null) {
+            startLabel = this.startLabel = newLabel();
+        }
         return startLabel;
     }
 
     Label endLabel() {
+        Label endLabel = this.endLabel;
+        if (endLabel == null) {
+            endLabel = this.endLabel = newLabel();
+        }
         return endLabel;
     }
 
+    /**
+     * {@return {@code true} if code which is added to this block now is never written,
+     * because this block or one of its enclosing blocks up to and including {@code outer} is already dead}
+     *
+     * @param outer the outermost block to check (must not be {@code null})
+     */
+    private boolean isDeadUpTo(final BlockCreatorImpl outer) {
+        BlockCreatorImpl block = this;
+        for (;;) {
+            if (block.reachableEnd != null) {
+                return true;
+            }
+            if (block == outer || block.parent == null) {
+                return false;
+            }
+            block = block.parent;
+        }
+    }
+
+    /**
+     * {@return the item after which the rest of this block is unreachable, or {@code null} if there is none}
+     */
+    Item reachableEnd() {
+        return reachableEnd;
+    }
+
+    LiveRanges liveRanges() {
+        return liveRanges;
+    }
+
     static void cleanStack(ListIterator<Item> itr) {
         // clean the block stack before the current iterator position
         while (itr.hasPrevious()) {
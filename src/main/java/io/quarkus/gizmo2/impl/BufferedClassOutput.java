@@ -0,0 +1,44 @@
+package io.quarkus.gizmo2.impl;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import io.quarkus.gizmo2.ClassOutput;
+
+/**
+ * A class output which records every call so that it can be replayed, in order, to another output later.
+ * Used to generate classes on other threads while keeping output single-threaded and deterministic.
+ * Instances are not thread-safe.
+ */
+final class BufferedClassOutput implements ClassOutput {
+    private final ArrayList<Consumer<ClassOutput>> calls = new ArrayList<>(4);
+
+    public void write(final ClassDesc desc, final byte[] bytes) {
+        calls.add(out -> out.write(desc, bytes));
+    }
+
+    public void writeSource(final ClassDesc desc, final String source) {
+        calls.add(out -> out.writeSource(desc, source));
+    }
+
+    public void write(final String path, final byte[] bytes) {
+        calls.add(out -> out.write(path, bytes));
+    }
+
+    public void registerBootstrapMethod(final ClassDesc owner, final String name, final MethodTypeDesc type) {
+        calls.add(out -> out.registerBootstrapMethod(owner, name, type));
+    }
+
+    /**
+     * Replay all recorded calls to the given output, in the order in which they were made.
+     *
+     * @param output the output to replay to (must not be {@code null})
+     */
+    void replayTo(ClassOutput output) {
+        for (Consumer<ClassOutput> call : calls) {
+            call.accept(output);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.quarkus.gizmo2.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for the generation of a type.
+ * The duration of the event covers building the class file, including the builder callback.
+ */
+@Name("gizmo.ClassGenerated")
+@Label("Class Generated")
+@Description("A class or interface was generated by Gizmo")
+@Category("Gizmo")
+@Enabled(false)
+@StackTrace(false)
+final class ClassGeneratedEvent extends Event {
+    @Label("Type")
+    @Description("The binary name of the generated type")
+    String type;
+
+    @Label("Size")
+    @Description("The size of the class file")
+    @DataAmount
+    int bytes;
+
+    @Label("Lambdas")
+    @Description("The number of lambdas defined by the code of the type")
+    int lambdas;
+}
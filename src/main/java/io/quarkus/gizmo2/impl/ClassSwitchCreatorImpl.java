@@ -1,35 +1,43 @@
 package io.quarkus.gizmo2.impl;
 
+import static io.quarkus.gizmo2.desc.Descs.*;
 import static java.lang.constant.ConstantDescs.*;
 
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+import io.quarkus.gizmo2.Const;
 import io.quarkus.gizmo2.Expr;
 import io.quarkus.gizmo2.impl.constant.ClassConst;
+import io.quarkus.gizmo2.impl.constant.ConstImpl;
 import io.smallrye.classfile.CodeBuilder;
 import io.smallrye.classfile.Label;
+import io.smallrye.classfile.TypeKind;
+import io.smallrye.classfile.instruction.SwitchCase;
 
 /**
  * A switch over {@code Class} objects.
+ * Since {@code Class} objects are compared by identity, the switch value is never hashed by name.
+ * Small switches compare the switch value with each case constant in turn.
+ * Larger switches look up the index of the matching case in a constant map,
+ * which is keyed by class identity, and dispatch on that index.
+ * Either way, case classes are resolved before a matching case is found,
+ * so every case class must be present at run time.
  */
-public final class ClassSwitchCreatorImpl extends HashSwitchCreatorImpl<ClassConst> {
+public final class ClassSwitchCreatorImpl extends SwitchCreatorImpl<ClassConst> {
+    /**
+     * The maximum number of case constants which are compared one by one.
+     */
+    static final int MAX_IDENTITY_CHAIN = 8;
+
     ClassSwitchCreatorImpl(final BlockCreatorImpl enclosing, final Expr switchVal, final ClassDesc type) {
         super(enclosing, switchVal, type, ClassConst.class);
     }
 
-    boolean staticEquals(final ClassConst a, final ClassConst b) {
-        return Util.equals(a.desc(), b.desc());
-    }
-
-    void equaller(final CodeBuilder cb, final ClassConst value, final Label ifEq, final StackMapBuilder smb) {
-        value.writeCode(cb, enclosing, smb);
-        cb.if_acmpeq(ifEq);
-        smb.pop();
-        smb.pop();
-        smb.wroteCode();
-    }
-
     int staticHash(final ClassConst val) {
         ClassDesc desc = val.desc();
         if (desc.isArray()) {
@@ -41,8 +49,67 @@ public final class ClassSwitchCreatorImpl extends HashSwitchCreatorImpl<ClassCon
         }
     }
 
-    void hash(final CodeBuilder cb) {
-        cb.invokevirtual(CD_Class, "getName", MethodTypeDesc.of(CD_String));
-        cb.invokevirtual(CD_String, "hashCode", MethodTypeDesc.of(CD_int));
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        Label fallOut, nonMatching;
+        if (default_ == null) {
+            fallOut = nonMatching = block.newLabel();
+        } else {
+            fallOut = default_.endLabel();
+            nonMatching = default_.startLabel();
+            if (fallThrough) {
+                default_.breakTarget();
+            }
+        }
+
+        // like `switch` on strings and enums, a `null` value is rejected
+        cb.dup();
+        cb.invokestatic(CD_Objects, "requireNonNull", MethodTypeDesc.of(CD_Object, CD_Object));
+        cb.pop();
+        if (casesByConstant.size() <= MAX_IDENTITY_CHAIN) {
+            writeIdentityChain(cb, block, smb, nonMatching);
+        } else {
+            writeIndexLookup(cb, block, smb, nonMatching);
+        }
+        smb.wroteCode();
+        writeBodies(cb, block, smb, fallOut);
+    }
+
+    private void writeIdentityChain(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb,
+            final Label nonMatching) {
+        int idx = cb.allocateLocal(TypeKind.REFERENCE);
+        cb.astore(idx);
+        smb.pop(); // switch value
+        smb.store(idx, switchVal.type());
+        for (Map.Entry<ClassConst, CaseCreatorImpl> entry : casesByConstant.entrySet()) {
+            cb.aload(idx);
+            smb.push(switchVal.type());
+            entry.getKey().writeCode(cb, block, smb);
+            cb.if_acmpeq(entry.getValue().body.startLabel());
+            smb.pop();
+            smb.pop();
+            smb.wroteCode();
+        }
+        cb.goto_(nonMatching);
+    }
+
+    private void writeIndexLookup(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb,
+            final Label nonMatching) {
+        Map<ClassConst, Integer> indexes = new LinkedHashMap<>();
+        for (Map.Entry<ClassConst, CaseCreatorImpl> entry : casesByConstant.entrySet()) {
+            indexes.put(entry.getKey(), Integer.valueOf(cases.indexOf(entry.getValue())));
+        }
+        ((ConstImpl) Const.of(indexes)).writeCode(cb, block, smb);
+        cb.swap();
+        cb.iconst_m1();
+        cb.invokestatic(CD_Integer, "valueOf", MethodTypeDesc.of(CD_Integer, CD_int));
+        cb.invokeinterface(CD_Map, "getOrDefault", MethodTypeDesc.of(CD_Object, CD_Object, CD_Object));
+        cb.checkcast(CD_Integer);
+        cb.invokevirtual(CD_Integer, "intValue", MethodTypeDesc.of(CD_int));
+        smb.pop(); // map
+        smb.pop(); // switch value
+        List<SwitchCase> switchCases = IntStream.range(0, cases.size())
+                .mapToObj(i -> SwitchCase.of(i, cases.get(i).body.startLabel()))
+                .toList();
+        cb.tableswitch(0, cases.size() - 1, nonMatching, switchCases);
     }
 }
@@ -0,0 +1,248 @@
+package io.quarkus.gizmo2.impl;
+
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.constant.ClassDesc;
+
+import io.quarkus.gizmo2.TypeKind;
+import io.quarkus.gizmo2.impl.constant.BooleanConst;
+import io.quarkus.gizmo2.impl.constant.ConstImpl;
+import io.quarkus.gizmo2.impl.constant.DoubleConst;
+import io.quarkus.gizmo2.impl.constant.FloatConst;
+import io.quarkus.gizmo2.impl.constant.IntBasedConst;
+import io.quarkus.gizmo2.impl.constant.LongConst;
+import io.quarkus.gizmo2.impl.constant.NullConst;
+
+/**
+ * Build-time evaluation of operations whose operands are all constant.
+ * <p>
+ * The result of folding is always exactly the value that the corresponding bytecode would produce at run time.
+ * The Java language arithmetic used here is specified identically to the JVM instructions
+ * (two's complement wrap-around, shift distance masking, IEEE 754 round-to-nearest, and so on).
+ * Operations which would throw at run time, such as integer division by zero, are never folded.
+ * <p>
+ * Operands are recognized if they are primitive constants, possibly wrapped in a primitive conversion.
+ * Each method returns {@code null} if the operation cannot be folded.
+ */
+final class ConstantFolding {
+    private ConstantFolding() {
+    }
+
+    /**
+     * {@return the constant value of the given primitive numeric item, or {@code null} if it is not constant}
+     * The value is an {@code Integer} for all types which are loaded as {@code int}.
+     *
+     * @param item the item (must not be {@code null})
+     */
+    static Number numericValue(final Item item) {
+        if (item instanceof IntBasedConst c) {
+            return Integer.valueOf(c.intValue());
+        } else if (item instanceof LongConst c) {
+            return Long.valueOf(c.longValue());
+        } else if (item instanceof FloatConst c) {
+            return c.desc();
+        } else if (item instanceof DoubleConst c) {
+            return c.desc();
+        } else if (item instanceof PrimitiveCast pc) {
+            Number n = numericValue(pc.a);
+            if (n == null) {
+                return null;
+            }
+            // the boxed number conversions are the Java casts, which are the JVM conversions
+            return switch (TypeKind.from(pc.type())) {
+                case BYTE -> Integer.valueOf((byte) n.intValue());
+                case SHORT -> Integer.valueOf((short) n.intValue());
+                case CHAR -> Integer.valueOf((char) n.intValue());
+                case INT -> Integer.valueOf(n.intValue());
+                case LONG -> Long.valueOf(n.longValue());
+                case FLOAT -> Float.valueOf(n.floatValue());
+                case DOUBLE -> Double.valueOf(n.doubleValue());
+                default -> null;
+            };
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * {@return the folded result of the given binary operation, or {@code null} if it cannot be folded}
+     *
+     * @param op the operation (must not be {@code null})
+     */
+    static ConstImpl fold(final BinOp op) {
+        ClassDesc type = op.type();
+        BinOp.Kind kind = op.kind();
+        if (type.equals(CD_boolean)) {
+            if (op.left() instanceof BooleanConst a && op.right() instanceof BooleanConst b) {
+                boolean x = a.isNonZero();
+                boolean y = b.isNonZero();
+                return switch (kind) {
+                    case AND -> ConstImpl.of(x & y);
+                    case OR -> ConstImpl.of(x | y);
+                    case XOR -> ConstImpl.of(x ^ y);
+                    default -> null;
+                };
+            }
+            return null;
+        }
+        Number a = numericValue(op.left());
+        Number b = numericValue(op.right());
+        if (a == null || b == null) {
+            return null;
+        }
+        if (type.equals(CD_int)) {
+            int x = a.intValue();
+            int y = b.intValue();
+            return switch (kind) {
+                case ADD -> ConstImpl.of(x + y);
+                case SUB -> ConstImpl.of(x - y);
+                case MUL -> ConstImpl.of(x * y);
+                case DIV -> y == 0 ? null : ConstImpl.of(x / y);
+                case REM -> y == 0 ? null : ConstImpl.of(x % y);
+                case AND -> ConstImpl.of(x & y);
+                case OR -> ConstImpl.of(x | y);
+                case XOR -> ConstImpl.of(x ^ y);
+                case SHL -> ConstImpl.of(x << y);
+                case SHR -> ConstImpl.of(x >> y);
+                case USHR -> ConstImpl.of(x >>> y);
+            };
+        } else if (type.equals(CD_long)) {
+            long x = a.longValue();
+            long y = b.longValue();
+            return switch (kind) {
+                case ADD -> ConstImpl.of(x + y);
+                case SUB -> ConstImpl.of(x - y);
+                case MUL -> ConstImpl.of(x * y);
+                case DIV -> y == 0 ? null : ConstImpl.of(x / y);
+                case REM -> y == 0 ? null : ConstImpl.of(x % y);
+                case AND -> ConstImpl.of(x & y);
+                case OR -> ConstImpl.of(x | y);
+                case XOR -> ConstImpl.of(x ^ y);
+                // the shift distance is an int
+                case SHL -> ConstImpl.of(x << b.intValue());
+                case SHR -> ConstImpl.of(x >> b.intValue());
+                case USHR -> ConstImpl.of(x >>> b.intValue());
+            };
+        } else if (type.equals(CD_float)) {
+            float x = a.floatValue();
+            float y = b.floatValue();
+            return switch (kind) {
+                case ADD -> ConstImpl.of(x + y);
+                case SUB -> ConstImpl.of(x - y);
+                case MUL -> ConstImpl.of(x * y);
+                case DIV -> ConstImpl.of(x / y);
+                case REM -> ConstImpl.of(x % y);
+                default -> null;
+            };
+        } else if (type.equals(CD_double)) {
+            double x = a.doubleValue();
+            double y = b.doubleValue();
+            return switch (kind) {
+                case ADD -> ConstImpl.of(x + y);
+                case SUB -> ConstImpl.of(x - y);
+                case MUL -> ConstImpl.of(x * y);
+                case DIV -> ConstImpl.of(x / y);
+                case REM -> ConstImpl.of(x % y);
+                default -> null;
+            };
+        } else {
+            // sub-int result types are not narrowed by the bytecode, so leave them alone
+            return null;
+        }
+    }
+
+    /**
+     * {@return the folded result of the given comparison, or {@code null} if it cannot be folded}
+     *
+     * @param op the comparison (must not be {@code null})
+     */
+    static ConstImpl fold(final Cmp op) {
+        Number a = numericValue(op.a());
+        Number b = numericValue(op.b());
+        if (a == null || b == null) {
+            return null;
+        }
+        return switch (op.a().typeKind().asLoadable()) {
+            case INT -> ConstImpl.of(Integer.compare(a.intValue(), b.intValue()));
+            case LONG -> ConstImpl.of(Long.compare(a.longValue(), b.longValue()));
+            case FLOAT -> {
+                float x = a.floatValue();
+                float y = b.floatValue();
+                yield ConstImpl.of(switch (op.kind()) {
+                    case CMP -> Float.compare(x, y);
+                    case CMPG -> x < y ? -1 : x == y ? 0 : 1;
+                    case CMPL -> x > y ? 1 : x == y ? 0 : -1;
+                });
+            }
+            case DOUBLE -> {
+                double x = a.doubleValue();
+                double y = b.doubleValue();
+                yield ConstImpl.of(switch (op.kind()) {
+                    case CMP -> Double.compare(x, y);
+                    case CMPG -> x < y ? -1 : x == y ? 0 : 1;
+                    case CMPL -> x > y ? 1 : x == y ? 0 : -1;
+                });
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * {@return the folded result of comparing two {@code int} operands, or {@code null} if it cannot be folded}
+     *
+     * @param a the first operand (must not be {@code null})
+     * @param b the second operand (must not be {@code null})
+     * @param kind the comparison kind (must not be {@code null})
+     */
+    static ConstImpl foldRel(final Item a, final Item b, final If.Kind kind) {
+        Number x = numericValue(a);
+        Number y = numericValue(b);
+        if (x == null || y == null) {
+            return null;
+        }
+        return ConstImpl.of(test(kind, Integer.compare(x.intValue(), y.intValue())));
+    }
+
+    /**
+     * {@return the folded result of comparing the given operand with zero or {@code null},
+     * or {@code null} if it cannot be folded}
+     *
+     * @param a the operand (must not be {@code null})
+     * @param kind the comparison kind (must not be {@code null})
+     */
+    static ConstImpl foldRelZero(final Item a, final If.Kind kind) {
+        if (a instanceof NullConst) {
+            return ConstImpl.of(test(kind, 0));
+        } else if (a instanceof BooleanConst bc) {
+            return ConstImpl.of(test(kind, bc.isNonZero() ? 1 : 0));
+        } else if (a.typeKind().asLoadable() == TypeKind.INT) {
+            Number x = numericValue(a);
+            return x == null ? null : ConstImpl.of(test(kind, Integer.compare(x.intValue(), 0)));
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * {@return the boolean value of the given constant condition, or {@code null} if it is not constant}
+     *
+     * @param cond the condition (must not be {@code null})
+     */
+    static Boolean conditionValue(final Item cond) {
+        if (cond instanceof BooleanConst || cond instanceof IntBasedConst) {
+            return Boolean.valueOf(((ConstImpl) cond).isNonZero());
+        }
+        return null;
+    }
+
+    private static boolean test(final If.Kind kind, final int cmp) {
+        return switch (kind) {
+            case EQ -> cmp == 0;
+            case NE -> cmp != 0;
+            case LT -> cmp < 0;
+            case GE -> cmp >= 0;
+            case LE -> cmp <= 0;
+            case GT -> cmp > 0;
+        };
+    }
+}
@@ -0,0 +1,177 @@
+package io.quarkus.gizmo2.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.quarkus.gizmo2.ClassOutput;
+import io.quarkus.gizmo2.DeduplicatingClassOutput;
+
+/**
+ * A class output which skips writes whose content hash matches the one recorded in a manifest.
+ * <p>
+ * The manifest format is:
+ * <ul>
+ * <li>the magic number {@code 0x475A4D46} ({@code GZMF})</li>
+ * <li>the format version (one byte)</li>
+ * <li>the number of entries ({@code int})</li>
+ * <li>for each entry, the path (as by {@link DataOutputStream#writeUTF(String)})
+ * followed by the {@value #HASH_SIZE} bytes of its SHA-256 hash</li>
+ * </ul>
+ * A manifest which is missing, truncated, or has a different format version is treated as empty.
+ */
+public final class DeduplicatingClassOutputImpl implements DeduplicatingClassOutput {
+    private static final int MAGIC = 0x475A4D46;
+    private static final int VERSION = 1;
+    private static final int HASH_SIZE = 32;
+
+    private final ClassOutput delegate;
+    private final Path manifestFile;
+    /**
+     * The hashes from the previous run (read only after construction).
+     */
+    private final Map<String, byte[]> previous;
+    /**
+     * The hashes of this run.
+     */
+    private final ConcurrentHashMap<String, byte[]> current = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public DeduplicatingClassOutputImpl(final ClassOutput delegate, final Path manifestFile) {
+        this.delegate = delegate;
+        this.manifestFile = manifestFile;
+        previous = load(manifestFile);
+    }
+
+    public void write(final ClassDesc desc, final byte[] bytes) {
+        if (!desc.isClassOrInterface()) {
+            throw new IllegalArgumentException("Can only write classes/interfaces");
+        }
+        String path = Util.internalName(desc) + ".class";
+        byte[] hash = hash(bytes);
+        if (changed(path, hash)) {
+            delegate.write(desc, bytes);
+        }
+        current.put(path, hash);
+    }
+
+    public void writeSource(final ClassDesc desc, final String source) {
+        if (!desc.isClassOrInterface()) {
+            throw new IllegalArgumentException("Can only write source for classes/interfaces");
+        }
+        String path = Util.internalName(desc) + ".java";
+        byte[] hash = hash(source.getBytes(StandardCharsets.UTF_8));
+        if (changed(path, hash)) {
+            delegate.writeSource(desc, source);
+        }
+        current.put(path, hash);
+    }
+
+    public void write(final String path, final byte[] bytes) {
+        byte[] hash = hash(bytes);
+        if (changed(path, hash)) {
+            delegate.write(path, bytes);
+        }
+        // only record the hash once the write has succeeded
+        current.put(path, hash);
+    }
+
+    public void registerBootstrapMethod(final ClassDesc owner, final String name, final MethodTypeDesc type) {
+        delegate.registerBootstrapMethod(owner, name, type);
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Path tmp = null;
+        try {
+            Path dir = manifestFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, manifestFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                os.writeInt(MAGIC);
+                os.writeByte(VERSION);
+                // sorted, so that identical runs produce identical manifests
+                Map<String, byte[]> entries = new TreeMap<>(current);
+                os.writeInt(entries.size());
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    os.writeUTF(entry.getKey());
+                    os.write(entry.getValue());
+                }
+            }
+            try {
+                Files.move(tmp, manifestFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write manifest %s".formatted(manifestFile), e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private boolean changed(final String path, final byte[] hash) {
+        if (closed) {
+            throw new IllegalStateException("Output is closed");
+        }
+        return !Arrays.equals(hash, previous.get(path));
+    }
+
+    private static byte[] hash(final byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, byte[]> load(final Path manifestFile) {
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifestFile)))) {
+            if (is.readInt() != MAGIC || is.readUnsignedByte() != VERSION) {
+                return Map.of();
+            }
+            int count = is.readInt();
+            if (count < 0) {
+                return Map.of();
+            }
+            // presize to avoid rehashing (but do not trust a corrupt count too much)
+            HashMap<String, byte[]> map = new HashMap<>((int) (Math.min(count, 1 << 20) * 4L / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                String path = is.readUTF();
+                byte[] hash = new byte[HASH_SIZE];
+                is.readFully(hash);
+                map.put(path, hash);
+            }
+            return map;
+        } catch (IOException e) {
+            // missing, truncated or unreadable; everything will be written again
+            return Map.of();
+        }
+    }
+}
@@ -3,17 +3,33 @@ package io.quarkus.gizmo2.impl;
 import static java.lang.constant.ConstantDescs.*;
 
 import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDesc;
+import java.lang.constant.DynamicConstantDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import io.quarkus.gizmo2.Expr;
 import io.quarkus.gizmo2.impl.constant.EnumConst;
 import io.smallrye.classfile.CodeBuilder;
 import io.smallrye.classfile.Label;
+import io.smallrye.classfile.instruction.SwitchCase;
 
 /**
  * A switch over {@code enum} values.
+ * The switch dispatches on the ordinal of the switch value, which is mapped to the matching case
+ * by an array that is created once, by a dynamic constant.
+ * The array is computed from the {@code enum} constants at run time, matching them by name,
+ * so the switch remains correct if the {@code enum} is changed and compiled separately.
+ * Switches with too many case constants to fit in a dynamic constant hash the constant name instead.
  */
 public final class EnumSwitchCreatorImpl extends HashSwitchCreatorImpl<EnumConst> {
+    /**
+     * The maximum number of case constants which can be passed to the ordinal map bootstrap.
+     */
+    static final int MAX_ORDINAL_CASES = 250;
+
     EnumSwitchCreatorImpl(final BlockCreatorImpl enclosing, final Expr switchVal, final ClassDesc type) {
         super(enclosing, switchVal, type, EnumConst.class);
     }
@@ -35,4 +51,44 @@ public final class EnumSwitchCreatorImpl extends HashSwitchCreatorImpl<EnumConst
         cb.invokevirtual(CD_Enum, "name", MethodTypeDesc.of(CD_String));
         cb.invokevirtual(CD_String, "hashCode", MethodTypeDesc.of(CD_int));
     }
+
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        ClassDesc enumType = casesByConstant.isEmpty() ? null : casesByConstant.keySet().iterator().next().type();
+        if (enumType == null || casesByConstant.size() > MAX_ORDINAL_CASES
+                || !casesByConstant.keySet().stream().allMatch(c -> c.type().equals(enumType))) {
+            super.writeCode(cb, block, smb);
+            return;
+        }
+        Label fallOut, nonMatching;
+        if (default_ == null) {
+            fallOut = nonMatching = block.newLabel();
+        } else {
+            fallOut = default_.endLabel();
+            nonMatching = default_.startLabel();
+            if (fallThrough) {
+                default_.breakTarget();
+            }
+        }
+
+        List<ConstantDesc> args = new ArrayList<>(casesByConstant.size() + 1);
+        args.add(enumType);
+        List<SwitchCase> switchCases = new ArrayList<>(casesByConstant.size());
+        for (Map.Entry<EnumConst, CaseCreatorImpl> entry : casesByConstant.entrySet()) {
+            args.add(entry.getKey().name());
+            switchCases.add(SwitchCase.of(switchCases.size() + 1, entry.getValue().body.startLabel()));
+        }
+
+        cb.invokevirtual(CD_Enum, "ordinal", MethodTypeDesc.of(CD_int));
+        cb.ldc(DynamicConstantDesc.ofNamed(
+                block.enumSwitchBootstrap(),
+                DEFAULT_NAME,
+                CD_int.arrayType(),
+                args.toArray(ConstantDesc[]::new)));
+        cb.swap();
+        cb.iaload();
+        smb.pop(); // switch value
+        cb.tableswitch(1, switchCases.size(), nonMatching, switchCases);
+        smb.wroteCode();
+        writeBodies(cb, block, smb, fallOut);
+    }
 }
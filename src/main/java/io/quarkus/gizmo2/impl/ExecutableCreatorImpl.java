@@ -352,6 +352,9 @@ public sealed abstract class ExecutableCreatorImpl extends ModifiableCreatorImpl
     }
 
     void doCode(final Consumer<BlockCreator> builder, final CodeBuilder cb, final StackMapBuilder smb) {
+        MethodGeneratedEvent event = new MethodGeneratedEvent();
+        event.begin();
+        int startItems = typeCreator.itemCount;
         ArrayList<TypeAnnotation> visible = new ArrayList<>();
         ArrayList<TypeAnnotation> invisible = new ArrayList<>();
         BlockCreatorImpl bc = new BlockCreatorImpl(typeCreator, cb, returnType(),
@@ -414,6 +417,11 @@ public sealed abstract class ExecutableCreatorImpl extends ModifiableCreatorImpl
         if (srcBuilder != null) {
             SourceGenerator.generateMethodBody(srcBuilder, this, bc);
         }
+        int splitThreshold = typeCreator.gizmo.methodSplitThreshold();
+        if (splitThreshold > 0 && !(this instanceof ConstructorCreatorImpl)) {
+            // constructors are left alone, because `this` is not usable before the superclass constructor call
+            MethodSplitter.split(this, bc, splitThreshold);
+        }
         bc.writeCode(cb, bc, smb);
 
         if (bc.mayFallThrough()) {
@@ -433,6 +441,13 @@ public sealed abstract class ExecutableCreatorImpl extends ModifiableCreatorImpl
         if (!invisible.isEmpty()) {
             cb.with(RuntimeInvisibleTypeAnnotationsAttribute.of(invisible));
         }
+        if (event.shouldCommit()) {
+            event.owner = Util.binaryName(typeCreator.type());
+            event.name = name();
+            event.descriptor = type().descriptorString();
+            event.items = typeCreator.itemCount - startItems;
+            event.commit();
+        }
     }
 
     abstract String name();
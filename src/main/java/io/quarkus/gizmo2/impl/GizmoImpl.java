@@ -1,20 +1,37 @@
 package io.quarkus.gizmo2.impl;
 
+import static io.smallrye.common.constraint.Assert.*;
+
 import java.lang.constant.ClassDesc;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import io.quarkus.gizmo2.ClassOutput;
 import io.quarkus.gizmo2.ClassVersion;
+import io.quarkus.gizmo2.FinallyStrategy;
 import io.quarkus.gizmo2.Gizmo;
+import io.quarkus.gizmo2.GizmoListener;
 import io.quarkus.gizmo2.LambdaStrategy;
 import io.quarkus.gizmo2.ModifierConfigurator;
+import io.quarkus.gizmo2.SwitchCostModel;
 import io.quarkus.gizmo2.creator.AccessLevel;
 import io.quarkus.gizmo2.creator.ClassCreator;
 import io.quarkus.gizmo2.creator.InterfaceCreator;
 import io.quarkus.gizmo2.creator.ModifierFlag;
 import io.quarkus.gizmo2.creator.ModifierLocation;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassBuilder;
 import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.MethodModel;
+import io.smallrye.classfile.attribute.CodeAttribute;
 
 public final class GizmoImpl implements Gizmo {
     private static final int[] DEFAULTS = ModifierLocation.values.stream().mapToInt(ModifierLocation::defaultModifierBits)
@@ -27,16 +44,26 @@ public final class GizmoImpl implements Gizmo {
     private final LambdaStrategy lambdaStrategy;
     private final boolean sourceGeneration;
     private final ClassVersion classVersion;
+    private final GizmoListener listener;
+    private final boolean localSlotReuse;
+    private final boolean peephole;
+    private final FinallyStrategy finallyStrategy;
+    private final int methodSplitThreshold;
+    private final int staticInitChunkSize;
+    private final SwitchCostModel switchCostModel;
     private final ClassFile.Option[] options;
 
     public GizmoImpl(final ClassOutput outputHandler) {
-        this(outputHandler, DEFAULTS, true, true, LambdaStrategy.OPTIMIZED, ClassVersion.V17, false);
+        this(outputHandler, DEFAULTS, true, true, LambdaStrategy.OPTIMIZED, ClassVersion.V17, false, null, false, false,
+                FinallyStrategy.INLINE, 0, 0, SwitchCostModel.DEFAULT);
     }
 
     private GizmoImpl(final ClassOutput outputHandler, final int[] modifiersByLocation,
             final boolean debugInfo, final boolean parameters,
             final LambdaStrategy lambdaStrategy, final ClassVersion classVersion,
-            final boolean sourceGeneration) {
+            final boolean sourceGeneration, final GizmoListener listener, final boolean localSlotReuse,
+            final boolean peephole, final FinallyStrategy finallyStrategy, final int methodSplitThreshold,
+            final int staticInitChunkSize, final SwitchCostModel switchCostModel) {
         this.outputHandler = outputHandler;
         this.modifiersByLocation = modifiersByLocation;
         this.debugInfo = debugInfo;
@@ -44,6 +71,13 @@ public final class GizmoImpl implements Gizmo {
         this.lambdaStrategy = lambdaStrategy;
         this.sourceGeneration = sourceGeneration;
         this.classVersion = classVersion;
+        this.listener = listener;
+        this.localSlotReuse = localSlotReuse;
+        this.peephole = peephole;
+        this.finallyStrategy = finallyStrategy;
+        this.methodSplitThreshold = methodSplitThreshold;
+        this.staticInitChunkSize = staticInitChunkSize;
+        this.switchCostModel = switchCostModel;
         ArrayList<ClassFile.Option> options = new ArrayList<>();
         options.add(ClassFile.StackMapsOption.DROP_STACK_MAPS);
         if (!debugInfo && !sourceGeneration) {
@@ -65,6 +99,56 @@ public final class GizmoImpl implements Gizmo {
         return outputHandler;
     }
 
+    /**
+     * {@return the listener, or {@code null} if there is none}
+     */
+    GizmoListener listener() {
+        return listener;
+    }
+
+    /**
+     * Build a type.
+     * If there is a listener or the flight recorder event is enabled, the type is measured and reported.
+     *
+     * @param desc the type descriptor (must not be {@code null})
+     * @param handler the handler which builds the type and returns its creator (must not be {@code null})
+     * @return the class file bytes (not {@code null})
+     */
+    byte[] build(final ClassDesc desc, final Function<ClassBuilder, TypeCreatorImpl> handler) {
+        ClassFile cf = createClassFile();
+        GizmoListener listener = this.listener;
+        ClassGeneratedEvent event = new ClassGeneratedEvent();
+        if (listener == null && !event.isEnabled()) {
+            return cf.build(desc, handler::apply);
+        }
+        TypeCreatorImpl[] creator = new TypeCreatorImpl[1];
+        event.begin();
+        long start = System.nanoTime();
+        byte[] bytes = cf.build(desc, zb -> creator[0] = handler.apply(zb));
+        long buildNanos = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.type = Util.binaryName(desc);
+            event.bytes = bytes.length;
+            event.lambdas = creator[0].lambdaCount;
+            event.commit();
+        }
+        if (listener == null) {
+            return bytes;
+        }
+        ClassModel cm = cf.parse(bytes);
+        List<MethodModel> methods = cm.methods();
+        int maxCodeLength = 0;
+        for (MethodModel method : methods) {
+            Optional<CodeAttribute> code = method.findAttribute(Attributes.code());
+            if (code.isPresent()) {
+                maxCodeLength = Math.max(maxCodeLength, code.get().codeLength());
+            }
+        }
+        listener.typeGenerated(new GizmoListener.TypeMetrics(desc, creator[0].builderNanos, buildNanos, bytes.length,
+                methods.size(), maxCodeLength, creator[0].lambdaCount, cm.constantPool().size()));
+        return bytes;
+    }
+
     @Override
     public Gizmo withDefaultModifiers(final Consumer<ModifierConfigurator> builder) {
         final int[] flags = modifiersByLocation.clone();
@@ -98,7 +182,8 @@ public final class GizmoImpl implements Gizmo {
         };
         builder.accept(configurator);
         return new GizmoImpl(outputHandler, flags.clone(), debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     /**
@@ -120,40 +205,148 @@ public final class GizmoImpl implements Gizmo {
         return classVersion;
     }
 
+    /**
+     * {@return {@code true} if local variable slots may be reused once a variable is dead}
+     */
+    boolean localSlotReuse() {
+        return localSlotReuse;
+    }
+
+    /**
+     * {@return {@code true} if the item list of each block is optimized before it is written}
+     */
+    boolean peephole() {
+        return peephole;
+    }
+
+    /**
+     * {@return the default translation strategy for {@code finally} blocks}
+     */
+    FinallyStrategy finallyStrategy() {
+        return finallyStrategy;
+    }
+
+    /**
+     * {@return the estimated code size above which method bodies are split, or {@code 0} if splitting is disabled}
+     */
+    int methodSplitThreshold() {
+        return methodSplitThreshold;
+    }
+
+    /**
+     * {@return the estimated code size of each group of static initializers which is moved out of {@code <clinit>},
+     * or {@code 0} if static initializers are not moved}
+     */
+    int staticInitChunkSize() {
+        return staticInitChunkSize;
+    }
+
+    /**
+     * {@return the cost model which is used to lower switch dispatch}
+     */
+    SwitchCostModel switchCostModel() {
+        return switchCostModel;
+    }
+
     @Override
     public Gizmo withOutput(final ClassOutput outputHandler) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     @Override
     public Gizmo withDebugInfo(final boolean debugInfo) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     @Override
     public Gizmo withParameters(final boolean parameters) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     @Override
     public Gizmo withLambdaStrategy(final LambdaStrategy lambdaStrategy) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     @Override
     public Gizmo withVersion(final ClassVersion classVersion) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withListener(final GizmoListener listener) {
+        checkNotNullParam("listener", listener);
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration,
+                this.listener == null ? listener : this.listener.andThen(listener), localSlotReuse, peephole,
+                finallyStrategy, methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     @Override
     public Gizmo withSourceGeneration(final boolean sourceGeneration) {
         return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
-                lambdaStrategy, classVersion, sourceGeneration);
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withLocalSlotReuse(final boolean localSlotReuse) {
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withPeepholeOptimization(final boolean peephole) {
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withFinallyStrategy(final FinallyStrategy finallyStrategy) {
+        checkNotNullParam("finallyStrategy", finallyStrategy);
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withMethodSplitThreshold(final int methodSplitThreshold) {
+        if (methodSplitThreshold < 0) {
+            throw new IllegalArgumentException("Method split threshold must not be negative");
+        }
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withStaticInitializerChunkSize(final int staticInitChunkSize) {
+        if (staticInitChunkSize < 0) {
+            throw new IllegalArgumentException("Static initializer chunk size must not be negative");
+        }
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
+    }
+
+    @Override
+    public Gizmo withSwitchCostModel(final SwitchCostModel switchCostModel) {
+        checkNotNullParam("switchCostModel", switchCostModel);
+        return new GizmoImpl(outputHandler, modifiersByLocation, debugInfo, parameters,
+                lambdaStrategy, classVersion, sourceGeneration, listener, localSlotReuse, peephole, finallyStrategy,
+                methodSplitThreshold, staticInitChunkSize, switchCostModel);
     }
 
     public ClassDesc class_(final ClassDesc desc, final Consumer<ClassCreator> builder) {
@@ -161,12 +354,12 @@ public final class GizmoImpl implements Gizmo {
             throw new IllegalArgumentException("Descriptor must describe a valid class");
         }
 
-        ClassFile cf = createClassFile();
-        byte[] bytes = cf.build(desc, zb -> {
+        byte[] bytes = build(desc, zb -> {
             ClassCreatorImpl tc = new ClassCreatorImpl(this, desc, outputHandler, zb);
             tc.preAccept();
             builder.accept(tc);
             tc.postAccept();
+            return tc;
         });
         outputHandler.write(desc, bytes);
         return desc;
@@ -176,14 +369,79 @@ public final class GizmoImpl implements Gizmo {
         if (!desc.isClassOrInterface()) {
             throw new IllegalArgumentException("Descriptor must describe a valid class");
         }
-        ClassFile cf = createClassFile();
-        byte[] bytes = cf.build(desc, zb -> {
+        byte[] bytes = build(desc, zb -> {
             InterfaceCreatorImpl tc = new InterfaceCreatorImpl(this, desc, outputHandler, zb);
             tc.accept(builder);
+            return tc;
         });
         outputHandler.write(desc, bytes);
         return desc;
     }
 
+    public List<ClassDesc> classes(final Map<ClassDesc, ? extends Consumer<ClassCreator>> builders, final Executor executor) {
+        checkNotNullParam("builders", builders);
+        checkNotNullParam("executor", executor);
+        return generateAll(builders, executor, Gizmo::class_);
+    }
+
+    public List<ClassDesc> interfaces(final Map<ClassDesc, ? extends Consumer<InterfaceCreator>> builders,
+            final Executor executor) {
+        checkNotNullParam("builders", builders);
+        checkNotNullParam("executor", executor);
+        return generateAll(builders, executor, Gizmo::interface_);
+    }
+
+    /**
+     * Generate each type on the given executor, buffering its output,
+     * and then replay the buffered output on the calling thread in the iteration order of {@code builders}.
+     */
+    private <C> List<ClassDesc> generateAll(final Map<ClassDesc, ? extends Consumer<C>> builders, final Executor executor,
+            final TypeGenerator<C> generator) {
+        int size = builders.size();
+        List<ClassDesc> descs = new ArrayList<>(size);
+        List<CompletableFuture<BufferedClassOutput>> jobs = new ArrayList<>(size);
+        boolean ok = false;
+        try {
+            for (Map.Entry<ClassDesc, ? extends Consumer<C>> entry : builders.entrySet()) {
+                ClassDesc desc = checkNotNullParam("desc", entry.getKey());
+                Consumer<C> builder = checkNotNullParam("builder", entry.getValue());
+                if (!desc.isClassOrInterface()) {
+                    throw new IllegalArgumentException("Descriptor must describe a valid class");
+                }
+                descs.add(desc);
+                jobs.add(CompletableFuture.supplyAsync(() -> {
+                    BufferedClassOutput buffer = new BufferedClassOutput();
+                    generator.generate(withOutput(buffer), desc, builder);
+                    return buffer;
+                }, executor));
+            }
+            for (CompletableFuture<BufferedClassOutput> job : jobs) {
+                job.join().replayTo(outputHandler);
+            }
+            ok = true;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        } finally {
+            if (!ok) {
+                // do not run (or deliver) anything that follows the failure
+                for (CompletableFuture<BufferedClassOutput> job : jobs) {
+                    job.cancel(false);
+                }
+            }
+        }
+        return List.copyOf(descs);
+    }
+
+    @FunctionalInterface
+    private interface TypeGenerator<C> {
+        void generate(Gizmo gizmo, ClassDesc desc, Consumer<C> builder);
+    }
+
     public static final GizmoImpl DEFAULT = new GizmoImpl(ClassOutput.discarding());
 }
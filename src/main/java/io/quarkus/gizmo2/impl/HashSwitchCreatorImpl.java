@@ -1,5 +1,7 @@
 package io.quarkus.gizmo2.impl;
 
+import static java.lang.constant.ConstantDescs.*;
+
 import java.lang.constant.ClassDesc;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -18,12 +20,14 @@ import io.smallrye.classfile.instruction.SwitchCase;
  * A hashing switch implementation.
  */
 abstract sealed class HashSwitchCreatorImpl<C extends ConstImpl> extends SwitchCreatorImpl<C>
-        permits ClassSwitchCreatorImpl, EnumSwitchCreatorImpl, LongSwitchCreatorImpl, StringSwitchCreatorImpl {
+        permits EnumSwitchCreatorImpl, LongSwitchCreatorImpl, StringSwitchCreatorImpl {
     HashSwitchCreatorImpl(final BlockCreatorImpl enclosing, final Expr switchVal, final ClassDesc type,
             final Class<C> constantType) {
         super(enclosing, switchVal, type, constantType);
     }
 
+    abstract void hash(CodeBuilder cb);
+
     abstract boolean staticEquals(C a, C b);
 
     abstract void equaller(final CodeBuilder cb, C value, Label ifEq, StackMapBuilder smb);
@@ -68,12 +72,8 @@ abstract sealed class HashSwitchCreatorImpl<C extends ConstImpl> extends SwitchC
         smb.store(idx, switchVal.type());
         hash(cb);
         smb.pop(); // switch value
-        if ((double) casesByConstant.size() / ((double) (max - min)) >= TABLESWITCH_DENSITY) {
-            cb.tableswitch(min, max, nonMatching, switchCases);
-        } else {
-            cb.lookupswitch(nonMatching, switchCases);
-        }
-        smb.wroteCode();
+        smb.push(CD_int); // hash
+        SwitchLowering.write(cb, smb, enclosing.owner().gizmo.switchCostModel(), switchCases, nonMatching);
 
         if (!casesByConstant.isEmpty()) {
             // now write the cases
@@ -0,0 +1,33 @@
+package io.quarkus.gizmo2.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for the definition of a lambda.
+ * The duration of the event covers the lambda builder callback and the generation of its implementation.
+ */
+@Name("gizmo.LambdaDefined")
+@Label("Lambda Defined")
+@Description("A lambda was defined by Gizmo")
+@Category("Gizmo")
+@Enabled(false)
+@StackTrace(false)
+final class LambdaDefinedEvent extends Event {
+    @Label("Owner")
+    @Description("The binary name of the type whose code defines the lambda")
+    String owner;
+
+    @Label("Interface")
+    @Description("The binary name of the functional interface")
+    String type;
+
+    @Label("Strategy")
+    @Description("The lambda generation strategy")
+    String strategy;
+}
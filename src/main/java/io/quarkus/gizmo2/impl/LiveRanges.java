@@ -0,0 +1,184 @@
+package io.quarkus.gizmo2.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import io.smallrye.classfile.CodeBuilder;
+import io.smallrye.classfile.Label;
+import io.smallrye.classfile.TypeKind;
+import io.smallrye.classfile.attribute.StackMapFrameInfo;
+
+/**
+ * The live ranges of the local variables declared directly in a single block,
+ * which allow a local variable slot to be reused once the variable that held it is dead.
+ * <p>
+ * A local variable is live from its declaration until the last item of the block which uses it,
+ * either directly or from within a nested block.
+ * Since all control flow in a block is structured, no item of the block after that point can observe the variable.
+ * Jumps backwards only ever target the start of an enclosing block, where the variable is not yet declared.
+ * <p>
+ * Slots are only reused between variables of the same size.
+ * A freed slot is marked as {@code TOP} in the stack map so that it does not appear in any later frame.
+ */
+final class LiveRanges {
+    /**
+     * The index of the last item using each variable declared in the block.
+     */
+    private final IdentityHashMap<LocalVarImpl, Integer> lastUse;
+    /**
+     * The variables which die after each item index.
+     */
+    private final HashMap<Integer, List<LocalVarImpl>> deaths = new HashMap<>();
+    /**
+     * The end of scope label of each variable which dies before the end of the block.
+     */
+    private final IdentityHashMap<LocalVarImpl, Label> ends = new IdentityHashMap<>();
+    private final ArrayDeque<Integer> freeSingle = new ArrayDeque<>();
+    private final ArrayDeque<Integer> freeDouble = new ArrayDeque<>();
+
+    private LiveRanges(final IdentityHashMap<LocalVarImpl, Integer> lastUse, final int lastIndex) {
+        this.lastUse = lastUse;
+        lastUse.forEach((lv, idx) -> {
+            if (idx < lastIndex) {
+                deaths.computeIfAbsent(idx, ignored -> new ArrayList<>(2)).add(lv);
+            }
+        });
+    }
+
+    /**
+     * Compute the live ranges of the local variables of the given block.
+     *
+     * @param block the block (must not be {@code null})
+     * @return the live ranges, or {@code null} if no slot can be reused in this block
+     */
+    static LiveRanges compute(final BlockCreatorImpl block) {
+        List<Item> items = block.items();
+        int sz = items.size();
+        IdentityHashMap<LocalVarImpl, Integer> lastUse = null;
+        for (int i = 0; i < sz; i++) {
+            if (items.get(i) instanceof LocalVarAllocator lva) {
+                if (lastUse == null) {
+                    lastUse = new IdentityHashMap<>();
+                }
+                lastUse.put(lva.localVar(), Integer.valueOf(i));
+            }
+        }
+        if (lastUse == null || lastUse.size() < 2) {
+            // nothing to share
+            return null;
+        }
+        for (int i = 0; i < sz; i++) {
+            scan(items.get(i), i, lastUse);
+        }
+        return new LiveRanges(lastUse, sz - 1);
+    }
+
+    private static void scanBlock(final BlockCreatorImpl block, final int index,
+            final IdentityHashMap<LocalVarImpl, Integer> lastUse) {
+        if (block != null) {
+            for (Item item : block.items()) {
+                scan(item, index, lastUse);
+            }
+        }
+    }
+
+    private static void scan(final Item item, final int index, final IdentityHashMap<LocalVarImpl, Integer> lastUse) {
+        if (item instanceof LocalVarImpl lv) {
+            use(lv, index, lastUse);
+        } else if (item instanceof BoundItem bi) {
+            scan(bi.item(), index, lastUse);
+        } else if (item instanceof LocalVarSet lvs) {
+            use(lvs.localVar(), index, lastUse);
+        } else if (item instanceof LocalVarIncrement lvi) {
+            use(lvi.localVar(), index, lastUse);
+        } else if (item instanceof LocalVarDecrement lvd) {
+            use(lvd.localVar(), index, lastUse);
+        } else if (item instanceof OutlinedCall oc) {
+            for (LocalVarImpl lv : oc.captured()) {
+                use(lv, index, lastUse);
+            }
+        } else if (item instanceof BlockCreatorImpl bci) {
+            scanBlock(bci, index, lastUse);
+        } else if (item instanceof If if_) {
+            scanBlock(if_.whenTrue, index, lastUse);
+            scanBlock(if_.whenFalse, index, lastUse);
+        } else if (item instanceof SwitchCreatorImpl<?> sci) {
+            for (SwitchCreatorImpl<?>.CaseCreatorImpl case_ : sci.cases) {
+                scanBlock(case_.body(), index, lastUse);
+            }
+            scanBlock(sci.default_, index, lastUse);
+        } else if (item instanceof TryCatch tc) {
+            scanBlock(tc.body(), index, lastUse);
+            for (TryCatch.Catch catch_ : tc.catches()) {
+                scanBlock(catch_.body(), index, lastUse);
+            }
+        } else if (item instanceof TryFinally tf) {
+            scanBlock(tf.body, index, lastUse);
+            // the cleanup is re-created from the same builder for each exit
+            scanBlock(tf.cleanupTemplate, index, lastUse);
+        }
+    }
+
+    private static void use(final LocalVarImpl lv, final int index, final IdentityHashMap<LocalVarImpl, Integer> lastUse) {
+        lastUse.computeIfPresent(lv, (ignored, old) -> Integer.valueOf(Math.max(old.intValue(), index)));
+    }
+
+    /**
+     * Allocate a slot for a variable, reusing a free slot if possible.
+     *
+     * @param cb the code builder of the block (must not be {@code null})
+     * @param kind the actual type kind of the variable (must not be {@code null})
+     * @return the slot
+     */
+    int allocate(final CodeBuilder cb, final TypeKind kind) {
+        ArrayDeque<Integer> free = kind.slotSize() == 2 ? freeDouble : freeSingle;
+        Integer slot = free.pollFirst();
+        return slot == null ? cb.allocateLocal(kind) : slot.intValue();
+    }
+
+    /**
+     * {@return the end of the scope of the given variable}
+     *
+     * @param cb the code builder of the block (must not be {@code null})
+     * @param lv the variable (must not be {@code null})
+     * @param blockEnd the end label of the block (must not be {@code null})
+     */
+    Label endLabel(final CodeBuilder cb, final LocalVarImpl lv, final Label blockEnd) {
+        List<LocalVarImpl> dying = deaths.get(lastUse.get(lv));
+        if (dying != null && dying.contains(lv)) {
+            Label label = cb.newLabel();
+            ends.put(lv, label);
+            return label;
+        }
+        return blockEnd;
+    }
+
+    /**
+     * Release the slots of all variables whose last use is the item at the given index.
+     *
+     * @param index the index of the item that was just written
+     * @param cb the code builder of the block (must not be {@code null})
+     * @param smb the stack map builder (must not be {@code null})
+     */
+    void afterItem(final int index, final CodeBuilder cb, final StackMapBuilder smb) {
+        List<LocalVarImpl> dead = deaths.get(Integer.valueOf(index));
+        if (dead == null) {
+            return;
+        }
+        for (LocalVarImpl lv : dead) {
+            if (lv.slot == -1) {
+                // never allocated (unreachable)
+                continue;
+            }
+            Label end = ends.get(lv);
+            if (end != null) {
+                cb.labelBinding(end);
+            }
+            smb.store(lv.slot, StackMapFrameInfo.SimpleVerificationTypeInfo.TOP);
+            (Util.actualKindOf(lv.typeKind()).slotSize() == 2 ? freeDouble : freeSingle).addLast(Integer.valueOf(lv.slot));
+        }
+    }
+}
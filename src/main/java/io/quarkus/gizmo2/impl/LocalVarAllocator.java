@@ -21,11 +21,22 @@ final class LocalVarAllocator extends Item {
         this.localVar = localVar;
     }
 
+    LocalVarImpl localVar() {
+        return localVar;
+    }
+
     public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
-        int slot = cb.allocateLocal(Util.actualKindOf(localVar.typeKind()));
-        // we reserve the slot for the full remainder of the block to avoid control-flow analysis
+        LiveRanges liveRanges = block.liveRanges();
+        int slot;
         startScope = cb.newBoundLabel();
-        endScope = block.endLabel();
+        if (liveRanges == null) {
+            // we reserve the slot for the full remainder of the block to avoid control-flow analysis
+            slot = cb.allocateLocal(Util.actualKindOf(localVar.typeKind()));
+            endScope = block.endLabel();
+        } else {
+            slot = liveRanges.allocate(cb, Util.actualKindOf(localVar.typeKind()));
+            endScope = liveRanges.endLabel(cb, localVar, block.endLabel());
+        }
         cb.with(LocalVariable.of(slot, localVar.name(), localVar.type(), startScope, endScope));
         if (localVar.hasGenericType()) {
             GenericType gt = localVar.genericType();
@@ -0,0 +1,36 @@
+package io.quarkus.gizmo2.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for the generation of the code of a method, constructor or initializer.
+ * The duration of the event covers the body builder callback and the emission of the bytecode.
+ */
+@Name("gizmo.MethodGenerated")
+@Label("Method Generated")
+@Description("The code of a method was generated by Gizmo")
+@Category("Gizmo")
+@Enabled(false)
+@StackTrace(false)
+final class MethodGeneratedEvent extends Event {
+    @Label("Owner")
+    @Description("The binary name of the type which declares the method")
+    String owner;
+
+    @Label("Name")
+    String name;
+
+    @Label("Descriptor")
+    @Description("The method type descriptor")
+    String descriptor;
+
+    @Label("Items")
+    @Description("The number of items added to the body, including nested blocks and lambda methods")
+    int items;
+}
@@ -0,0 +1,609 @@
+package io.quarkus.gizmo2.impl;
+
+import static io.smallrye.classfile.ClassFile.*;
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import io.quarkus.gizmo2.FinallyStrategy;
+import io.quarkus.gizmo2.TypeKind;
+import io.smallrye.classfile.CodeBuilder;
+import io.smallrye.classfile.Label;
+import io.smallrye.classfile.attribute.StackMapFrameInfo;
+import io.smallrye.classfile.attribute.StackMapTableAttribute;
+import io.smallrye.classfile.instruction.LocalVariable;
+
+/**
+ * Splits the body of a method whose code is too large by moving runs of self-contained statements
+ * into private synthetic helper methods on the same type.
+ * <p>
+ * The size of the code is estimated from the items of each block, because the actual size is only known
+ * once the code has been written.
+ * A block which is too large is reduced by first reducing the nested blocks of its largest statements,
+ * and then replacing runs of consecutive statements which can be moved with a call to a new helper method.
+ * <p>
+ * A statement can be moved if it falls through, does not return, does not assign a parameter or a local
+ * variable declared outside of it, does not assign a {@code static final} field of the type,
+ * and does not jump to a block outside of it.
+ * Each helper method is {@code static}, and receives {@code this} (for instance methods) followed by
+ * all of the parameters of the original method, so that both keep their original slots.
+ * The values of the local variables declared outside of the moved statements which are read by them
+ * are passed as additional arguments.
+ * <p>
+ * The cleanup of a {@code try}-{@code finally} is rebuilt for each exit of its body when it is written,
+ * so it is never reduced; its size is estimated from the number of copies which are written.
+ */
+final class MethodSplitter {
+    /**
+     * The estimated size below which it is not worth moving statements into a helper method.
+     */
+    private static final int MIN_CHUNK = 32;
+    /**
+     * The largest number of argument slots of a method.
+     */
+    private static final int MAX_SLOTS = 255;
+
+    private final TypeCreatorImpl owner;
+    private final String methodName;
+    private final boolean hasThis;
+    private final List<ClassDesc> paramTypes;
+    private final List<ParamVarImpl> params;
+    private final int paramSlots;
+    private final int chunkLimit;
+    /**
+     * {@code true} to reduce the nested blocks of statements which are too large to be moved as a whole,
+     * or {@code false} to move each such statement into a helper method of its own.
+     */
+    private final boolean reduceNested;
+
+    private MethodSplitter(final TypeCreatorImpl owner, final String methodName, final boolean hasThis,
+            final List<ClassDesc> paramTypes, final List<ParamVarImpl> params, final int chunkLimit,
+            final boolean reduceNested) {
+        this.owner = owner;
+        this.methodName = methodName;
+        this.hasThis = hasThis;
+        this.paramTypes = paramTypes;
+        this.params = params;
+        int slots = hasThis ? 1 : 0;
+        for (ClassDesc paramType : paramTypes) {
+            slots += TypeKind.from(paramType).slotSize();
+        }
+        paramSlots = slots;
+        this.chunkLimit = chunkLimit;
+        this.reduceNested = reduceNested;
+    }
+
+    /**
+     * Split the given method body, if its estimated size exceeds the threshold.
+     *
+     * @param executable the method being written (must not be {@code null})
+     * @param body the outermost block of the method (must not be {@code null})
+     * @param threshold the estimated code size above which the body is split
+     */
+    static void split(final ExecutableCreatorImpl executable, final BlockCreatorImpl body, final int threshold) {
+        if (estimate(body) > threshold) {
+            new MethodSplitter(executable.typeCreator, executable.name(), (executable.modifiers & ACC_STATIC) == 0,
+                    executable.type().parameterList(), executable.params, Math.max(threshold / 2, MIN_CHUNK), true)
+                    .reduce(body, threshold);
+        }
+    }
+
+    /**
+     * Move the static initializers of a type into helper methods.
+     * Consecutive initializers are grouped into one helper method as long as their estimated size
+     * does not exceed the given chunk size, and an initializer which is larger than the chunk size
+     * gets a helper method of its own.
+     * Initializers which cannot be moved (for example because they return early) stay where they are.
+     *
+     * @param owner the type whose static initializer is being written (must not be {@code null})
+     * @param body the outermost block of the static initializer, which has one nested block
+     *        per initializer (must not be {@code null})
+     * @param chunkSize the maximum estimated size of a group of initializers
+     */
+    static void splitStaticInitializer(final TypeCreatorImpl owner, final BlockCreatorImpl body, final int chunkSize) {
+        new MethodSplitter(owner, "clinit", false, List.of(), List.of(), chunkSize, false).reduce(body, 0);
+    }
+
+    private void reduce(final BlockCreatorImpl block, final int limit) {
+        int size = estimate(block);
+        if (size <= limit) {
+            return;
+        }
+        List<Statement> statements = statements(block);
+        List<Item> items = block.items();
+        // first make the largest statements small enough to be moved as a whole
+        for (Statement statement : statements) {
+            if (reduceNested && statement.size > chunkLimit) {
+                for (int i = statement.start; i < statement.end; i++) {
+                    forEachNestedBlock(items.get(i), nested -> reduce(nested, chunkLimit));
+                }
+                int newSize = estimate(items, statement.start, statement.end);
+                size += newSize - statement.size;
+                statement.size = newSize;
+            }
+        }
+        // then move runs of statements until the block is small enough
+        boolean jumpsAllowed = block.tryFinally() == null;
+        int runStart = -1;
+        int runEnd = -1;
+        int runSize = 0;
+        Scan run = new Scan();
+        for (Statement statement : statements) {
+            if (size <= limit) {
+                return;
+            }
+            Scan scan = new Scan();
+            for (int i = statement.start; i < statement.end; i++) {
+                scan.item(items.get(i));
+            }
+            boolean movable = statement.isMovable() && scan.isMovable(jumpsAllowed)
+                    && (statement.size <= chunkLimit || !reduceNested);
+            if (runStart != -1 && (!movable || runSize + statement.size > chunkLimit)) {
+                size -= outline(block, runStart, runEnd, runSize, run);
+                runStart = -1;
+                runSize = 0;
+                run = new Scan();
+            }
+            if (movable) {
+                if (runStart == -1) {
+                    runStart = statement.start;
+                }
+                runEnd = statement.end;
+                runSize += statement.size;
+                run.addAll(scan);
+            }
+        }
+        if (runStart != -1 && size > limit) {
+            outline(block, runStart, runEnd, runSize, run);
+        }
+    }
+
+    /**
+     * Move the given range of items into a new helper method, if it is worthwhile.
+     *
+     * @return the estimated number of bytes saved
+     */
+    private int outline(final BlockCreatorImpl block, final int start, final int end, final int size, final Scan scan) {
+        if (reduceNested && size < MIN_CHUNK) {
+            return 0;
+        }
+        List<LocalVarImpl> captured = scan.captured();
+        List<ClassDesc> helperParams = new ArrayList<>(paramTypes.size() + captured.size() + 1);
+        if (hasThis) {
+            helperParams.add(owner.type());
+        }
+        helperParams.addAll(paramTypes);
+        int slots = paramSlots;
+        for (LocalVarImpl lv : captured) {
+            helperParams.add(lv.type());
+            slots += TypeKind.from(lv.type()).slotSize();
+        }
+        if (slots > MAX_SLOTS) {
+            return 0;
+        }
+        MethodTypeDesc type = MethodTypeDesc.of(CD_void, helperParams.toArray(ClassDesc[]::new));
+        String name = methodName + "$split$" + owner.methodSplitCounter++;
+        List<Item> items = block.items();
+        List<Item> chunk = new ArrayList<>(items.subList(start, end));
+        owner.zb.withMethod(name, type, ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC, mb -> mb.withCode(cb -> {
+            StackMapBuilder smb = new StackMapBuilder();
+            int slot = 0;
+            for (ClassDesc helperParam : helperParams) {
+                smb.store(slot, helperParam);
+                slot += TypeKind.from(helperParam).slotSize();
+            }
+            int[] oldSlots = new int[captured.size()];
+            slot = paramSlots;
+            for (int i = 0; i < oldSlots.length; i++) {
+                LocalVarImpl lv = captured.get(i);
+                oldSlots[i] = lv.slot;
+                lv.slot = slot;
+                slot += TypeKind.from(lv.type()).slotSize();
+            }
+            // the labels of the moved blocks (and any new labels of the enclosing block) belong to the helper now
+            CodeBuilder outer = block.retarget(cb);
+            try {
+                for (Item item : chunk) {
+                    forEachNestedBlock(item, nested -> retarget(nested, cb));
+                }
+                if (owner.gizmo.peephole()) {
+                    Peephole.optimize(chunk);
+                }
+                Label startLabel = cb.newBoundLabel();
+                int lastSourceLine = -1;
+                for (Item item : chunk) {
+                    if (item.sourceLine >= 0 && item.sourceLine != lastSourceLine) {
+                        cb.lineNumber(item.sourceLine);
+                        lastSourceLine = item.sourceLine;
+                    }
+                    item.writeCode(cb, block, smb);
+                }
+                cb.return_();
+                Label endLabel = cb.newBoundLabel();
+                addLocalVariables(cb, captured, startLabel, endLabel);
+            } finally {
+                block.retarget(outer);
+                for (int i = 0; i < oldSlots.length; i++) {
+                    captured.get(i).slot = oldSlots[i];
+                }
+            }
+            List<StackMapFrameInfo> infos = smb.frameInfos();
+            if (!infos.isEmpty()) {
+                cb.with(StackMapTableAttribute.of(infos));
+            }
+        }));
+        boolean isInterface = (owner.modifiers & ACC_INTERFACE) != 0;
+        OutlinedCall call = new OutlinedCall(owner.type(), name, type, isInterface, hasThis, paramTypes, captured);
+        call.sourceLine = chunk.get(0).sourceLine;
+        items.set(start, call);
+        for (int i = start + 1; i < end; i++) {
+            items.set(i, Nop.FILL);
+        }
+        return size - estimate(call);
+    }
+
+    private void addLocalVariables(final CodeBuilder cb, final List<LocalVarImpl> captured, final Label start,
+            final Label end) {
+        if (hasThis) {
+            cb.with(LocalVariable.of(0, "this", owner.type(), start, end));
+        }
+        for (ParamVarImpl param : params) {
+            if (param != null) {
+                cb.with(LocalVariable.of(param.slot(), param.name(), param.type(), start, end));
+            }
+        }
+        for (LocalVarImpl lv : captured) {
+            cb.with(LocalVariable.of(lv.slot, lv.name(), lv.type(), start, end));
+        }
+    }
+
+    private static void retarget(final BlockCreatorImpl block, final CodeBuilder cb) {
+        block.retarget(cb);
+        for (Item item : block.items()) {
+            forEachNestedBlock(item, nested -> retarget(nested, cb));
+        }
+    }
+
+    /**
+     * Split the items of the given block into statements.
+     * A statement is a {@code void} item together with all of the items that it depends on.
+     * Statements after the reachable end of the block are not included.
+     *
+     * @param block the block (must not be {@code null})
+     * @return the statements of the block in order (not {@code null})
+     */
+    private static List<Statement> statements(final BlockCreatorImpl block) {
+        List<Item> items = block.items();
+        int limit = items.size();
+        Item reachableEnd = block.reachableEnd();
+        if (reachableEnd != null) {
+            for (int i = 0; i < limit; i++) {
+                if (items.get(i) == reachableEnd) {
+                    limit = i;
+                    break;
+                }
+            }
+        }
+        // work on a copy, because walking the dependencies must never change the real list
+        List<Item> copy = new ArrayList<>(items.subList(0, limit));
+        ListIterator<Item> itr = copy.listIterator(limit);
+        ArrayList<Statement> statements = new ArrayList<>();
+        while (itr.hasPrevious()) {
+            int end = itr.nextIndex();
+            Item last = itr.previous();
+            if (last instanceof BlockHeader || !last.isVoid()) {
+                // an unconsumed value; nothing before it can be moved
+                break;
+            }
+            itr.next();
+            last.verify(itr);
+            int start = itr.nextIndex();
+            statements.add(new Statement(start, end, last, estimate(items, start, end)));
+        }
+        for (int i = 0; i < limit; i++) {
+            if (copy.get(i) != items.get(i)) {
+                // unexpected list shape; leave this block alone
+                return List.of();
+            }
+        }
+        Collections.reverse(statements);
+        return statements;
+    }
+
+    // size estimation
+
+    private static int estimate(final List<Item> items, final int start, final int end) {
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            size += estimate(items.get(i));
+        }
+        return size;
+    }
+
+    private static int estimate(final BlockCreatorImpl block) {
+        int size = 0;
+        Item reachableEnd = block.reachableEnd();
+        for (Item item : block.items()) {
+            size += estimate(item);
+            if (item == reachableEnd) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@return a rough estimate of the number of bytes of code written for the given item}
+     * Most instructions which refer to the constant pool take three bytes, and most others take one or two,
+     * so three bytes is a reasonable upper bound for a typical item.
+     */
+    private static int estimate(final Item item) {
+        if (item == Nop.FILL || item instanceof BlockHeader || item instanceof LocalVarAllocator) {
+            return 0;
+        } else if (item instanceof LocalVarImpl || item instanceof ParamVarImpl) {
+            return 2;
+        } else if (item instanceof BoundItem bi) {
+            return estimate(bi.item());
+        } else if (item instanceof OutlinedCall oc) {
+            return 3 + 2 * oc.argumentCount();
+        } else if (item instanceof BlockCreatorImpl bci) {
+            return estimate(bci);
+        } else if (item instanceof If if_) {
+            return 6 + estimateNullable(if_.whenTrue) + estimateNullable(if_.whenFalse);
+        } else if (item instanceof SwitchCreatorImpl<?> sci) {
+            int size = 16 + estimateNullable(sci.default_);
+            for (SwitchCreatorImpl<?>.CaseCreatorImpl case_ : sci.cases) {
+                size += 8 + estimate(case_.body());
+            }
+            return size;
+        } else if (item instanceof TryCatch tc) {
+            int size = 3 + estimate(tc.body());
+            for (TryCatch.Catch catch_ : tc.catches()) {
+                size += 3 + estimate(catch_.body());
+            }
+            return size;
+        } else if (item instanceof TryFinally tf) {
+            return 6 + estimate(tf.body) + estimateCleanup(tf);
+        } else {
+            return 3;
+        }
+    }
+
+    /**
+     * {@return a rough estimate of the number of bytes of code written for the cleanup of the given item}
+     * The cleanup template itself is never written; the cleanup is rebuilt for the exits of the body instead,
+     * according to the finally strategy.
+     */
+    private static int estimateCleanup(final TryFinally tf) {
+        int cleanup = estimate(tf.cleanupTemplate);
+        int exits = countExits(tf.body);
+        boolean isVoid = Util.isVoid(tf.body.type());
+        if (!tf.cleanupTemplate.mayFallThrough()) {
+            // each exit skips to the copy which completes the body, and a value-yielding body also has a rethrow copy
+            return 4 * exits + (isVoid ? 1 : 2) * cleanup;
+        }
+        // every exit, the rethrow, and falling out of the body
+        int paths = exits + 1 + (tf.body.mayFallThrough() ? 1 : 0);
+        if (tf.strategy == FinallyStrategy.SHARED && isVoid) {
+            // one copy, with each path saving its value before it and dispatching after it
+            return cleanup + 12 * paths;
+        }
+        return paths * cleanup;
+    }
+
+    /**
+     * {@return the number of distinct exits of the given {@code try} body, each of which gets its own cleanup}
+     */
+    private static int countExits(final BlockCreatorImpl body) {
+        Set<Object> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> jumps = new ArrayList<>();
+        collectJumps(body, targets, jumps);
+        Set<Object> exits = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object jump : jumps) {
+            if (!targets.contains(jump)) {
+                exits.add(jump);
+            }
+        }
+        return exits.size();
+    }
+
+    private static void collectJumps(final BlockCreatorImpl block, final Set<Object> targets, final List<Object> jumps) {
+        targets.add(block);
+        Item reachableEnd = block.reachableEnd();
+        for (Item item : block.items()) {
+            if (item instanceof Return) {
+                // all returns share one exit
+                jumps.add(Return.class);
+            } else if (item instanceof Break br) {
+                jumps.add(br.outer());
+            } else if (item instanceof GotoStart gs) {
+                jumps.add(gs.outer());
+            } else if (item instanceof GotoCase gc) {
+                jumps.add(gc.switch_());
+            } else if (item instanceof GotoDefault gd) {
+                jumps.add(gd.switch_());
+            } else {
+                if (item instanceof SwitchCreatorImpl<?> sci) {
+                    targets.add(sci);
+                }
+                forEachNestedBlock(item, nested -> collectJumps(nested, targets, jumps));
+            }
+            if (item == reachableEnd) {
+                break;
+            }
+        }
+    }
+
+    private static int estimateNullable(final BlockCreatorImpl block) {
+        return block == null ? 0 : estimate(block);
+    }
+
+    /**
+     * Call the given action for each block which is directly nested in the given item and written as part of it.
+     * The cleanup template of a {@code try}-{@code finally} is not included, because it is never written.
+     *
+     * @param item the item (must not be {@code null})
+     * @param action the action (must not be {@code null})
+     */
+    private static void forEachNestedBlock(final Item item, final Consumer<BlockCreatorImpl> action) {
+        if (item instanceof BlockCreatorImpl bci) {
+            action.accept(bci);
+        } else if (item instanceof If if_) {
+            acceptNullable(if_.whenTrue, action);
+            acceptNullable(if_.whenFalse, action);
+        } else if (item instanceof SwitchCreatorImpl<?> sci) {
+            for (SwitchCreatorImpl<?>.CaseCreatorImpl case_ : sci.cases) {
+                action.accept(case_.body());
+            }
+            acceptNullable(sci.default_, action);
+        } else if (item instanceof TryCatch tc) {
+            action.accept(tc.body());
+            for (TryCatch.Catch catch_ : tc.catches()) {
+                action.accept(catch_.body());
+            }
+        } else if (item instanceof TryFinally tf) {
+            action.accept(tf.body);
+        }
+    }
+
+    private static void acceptNullable(final BlockCreatorImpl block, final Consumer<BlockCreatorImpl> action) {
+        if (block != null) {
+            action.accept(block);
+        }
+    }
+
+    /**
+     * A top-level statement of a block, which spans the given range of items.
+     */
+    private static final class Statement {
+        final int start;
+        final int end;
+        final Item last;
+        int size;
+
+        Statement(final int start, final int end, final Item last, final int size) {
+            this.start = start;
+            this.end = end;
+            this.last = last;
+            this.size = size;
+        }
+
+        boolean isMovable() {
+            // statements which consume the block input are not self-contained
+            return start > 0 && last.mayFallThrough() && !(last instanceof LocalVarAllocator) && !(last instanceof Yield);
+        }
+    }
+
+    /**
+     * The variables, blocks and jumps found in a range of items, including in all of their nested blocks.
+     */
+    private final class Scan {
+        private final Set<LocalVarImpl> declared = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<LocalVarImpl> readSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        /**
+         * The variables which are read, in order of their first use, so that the helper signature is stable.
+         */
+        private final List<LocalVarImpl> read = new ArrayList<>();
+        private final List<LocalVarImpl> written = new ArrayList<>();
+        private final Set<Object> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<Object> jumps = new ArrayList<>();
+        private boolean fixed;
+
+        void item(final Item item) {
+            if (item instanceof LocalVarImpl lv) {
+                read(lv);
+            } else if (item instanceof BoundItem bi) {
+                item(bi.item());
+            } else if (item instanceof LocalVarAllocator lva) {
+                declared.add(lva.localVar());
+            } else if (item instanceof LocalVarSet lvs) {
+                written.add(lvs.localVar());
+            } else if (item instanceof LocalVarIncrement lvi) {
+                written.add(lvi.localVar());
+            } else if (item instanceof LocalVarDecrement lvd) {
+                written.add(lvd.localVar());
+            } else if (item instanceof OutlinedCall oc) {
+                oc.captured().forEach(this::read);
+            } else if (item instanceof Return || item instanceof ParamSet) {
+                fixed = true;
+            } else if (item instanceof StaticFieldSet sfs) {
+                // a `static final` field may only be assigned by `<clinit>` itself
+                if (owner.finalStaticFields.contains(sfs.staticFieldVar().desc())) {
+                    fixed = true;
+                }
+            } else if (item instanceof Break br) {
+                jumps.add(br.outer());
+            } else if (item instanceof GotoStart gs) {
+                jumps.add(gs.outer());
+            } else if (item instanceof GotoCase gc) {
+                jumps.add(gc.switch_());
+            } else if (item instanceof GotoDefault gd) {
+                jumps.add(gd.switch_());
+            } else {
+                if (item instanceof SwitchCreatorImpl<?> sci) {
+                    targets.add(sci);
+                } else if (item instanceof TryFinally tf) {
+                    // every copy of the cleanup is built by the same code as the template
+                    block(tf.cleanupTemplate);
+                }
+                forEachNestedBlock(item, this::block);
+            }
+        }
+
+        private void block(final BlockCreatorImpl block) {
+            targets.add(block);
+            for (Item item : block.items()) {
+                item(item);
+            }
+        }
+
+        private void read(final LocalVarImpl lv) {
+            if (readSet.add(lv)) {
+                read.add(lv);
+            }
+        }
+
+        boolean isMovable(final boolean jumpsAllowed) {
+            if (fixed || !jumpsAllowed && !jumps.isEmpty()) {
+                return false;
+            }
+            for (LocalVarImpl lv : written) {
+                if (!declared.contains(lv)) {
+                    return false;
+                }
+            }
+            for (Object target : jumps) {
+                if (!targets.contains(target)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void addAll(final Scan other) {
+            declared.addAll(other.declared);
+            other.read.forEach(this::read);
+        }
+
+        /**
+         * {@return the variables which are read but declared outside of the scanned items}
+         */
+        List<LocalVarImpl> captured() {
+            List<LocalVarImpl> captured = new ArrayList<>();
+            for (LocalVarImpl lv : read) {
+                if (!declared.contains(lv)) {
+                    captured.add(lv);
+                }
+            }
+            return captured;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.quarkus.gizmo2.impl;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+
+import io.quarkus.gizmo2.TypeKind;
+import io.smallrye.classfile.CodeBuilder;
+
+/**
+ * A call to a helper method which holds statements that were moved out of a block by {@link MethodSplitter}.
+ * The helper receives {@code this} (if the original method has one), all of the parameters of the original
+ * method, and the values of the local variables which the moved statements read.
+ */
+final class OutlinedCall extends Item {
+    private final ClassDesc owner;
+    private final String name;
+    private final MethodTypeDesc type;
+    private final boolean isInterface;
+    private final boolean hasThis;
+    private final List<ClassDesc> paramTypes;
+    private final List<LocalVarImpl> captured;
+
+    OutlinedCall(final ClassDesc owner, final String name, final MethodTypeDesc type, final boolean isInterface,
+            final boolean hasThis, final List<ClassDesc> paramTypes, final List<LocalVarImpl> captured) {
+        this.owner = owner;
+        this.name = name;
+        this.type = type;
+        this.isInterface = isInterface;
+        this.hasThis = hasThis;
+        this.paramTypes = paramTypes;
+        this.captured = captured;
+    }
+
+    /**
+     * {@return the local variables whose values are passed to the helper method}
+     */
+    List<LocalVarImpl> captured() {
+        return captured;
+    }
+
+    /**
+     * {@return the number of arguments passed to the helper method}
+     */
+    int argumentCount() {
+        return type.parameterCount();
+    }
+
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        int slot = 0;
+        if (hasThis) {
+            cb.aload(0);
+            smb.push(owner);
+            slot = 1;
+        }
+        for (ClassDesc paramType : paramTypes) {
+            TypeKind kind = TypeKind.from(paramType);
+            cb.loadLocal(Util.actualKindOf(kind), slot);
+            smb.push(paramType);
+            slot += kind.slotSize();
+        }
+        for (LocalVarImpl lv : captured) {
+            lv.writeCode(cb, block, smb);
+        }
+        cb.invokestatic(owner, name, type, isInterface);
+        for (int i = 0; i < type.parameterCount(); i++) {
+            smb.pop();
+        }
+        smb.wroteCode();
+    }
+}
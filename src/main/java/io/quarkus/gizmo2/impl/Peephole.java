@@ -0,0 +1,110 @@
+package io.quarkus.gizmo2.impl;
+
+import java.util.List;
+
+/**
+ * A peephole optimizer for the item list of a single block.
+ * <p>
+ * The optimizer runs just before the block is written, once the list is final.
+ * It only ever rewrites runs of adjacent items (ignoring {@linkplain Nop#FILL fill items}),
+ * and it replaces removed items with fill items so that the list keeps its size.
+ * The following patterns are recognized:
+ * <ul>
+ * <li>a {@code Box} which is immediately unboxed to the same primitive type is removed along with the {@code Unbox}</li>
+ * <li>a local variable which is loaded and immediately stored back to itself is removed along with the store</li>
+ * <li>a local variable store which is immediately followed by a load of the same variable is rewritten
+ * to a {@code Dup} followed by the store</li>
+ * <li>a {@code Pop} of a value which was produced without side effects is removed along with the value</li>
+ * </ul>
+ * Unboxing followed by boxing is left alone, because it would otherwise lose the {@code NullPointerException}
+ * and the identity of the boxed value.
+ */
+final class Peephole {
+    private Peephole() {
+    }
+
+    /**
+     * Optimize the given item list in place.
+     *
+     * @param items the item list (must not be {@code null})
+     */
+    static void optimize(final List<Item> items) {
+        boolean changed;
+        do {
+            changed = false;
+            int sz = items.size();
+            for (int i = 0; i < sz; i++) {
+                Item item = items.get(i);
+                if (item == Nop.FILL) {
+                    continue;
+                }
+                int j = next(items, i);
+                if (j == -1) {
+                    break;
+                }
+                Item next = items.get(j);
+                if (item instanceof Box box && next instanceof Unbox unbox && unbox.a == box
+                        && unbox.type().equals(box.a.type())) {
+                    // Integer.valueOf(x).intValue() -> x
+                    items.set(i, Nop.FILL);
+                    items.set(j, Nop.FILL);
+                    changed = true;
+                } else if (next instanceof LocalVarSet set && set.value() == item && loadOf(item) == set.localVar()) {
+                    // x = x -> nothing
+                    items.set(i, Nop.FILL);
+                    items.set(j, Nop.FILL);
+                    changed = true;
+                } else if (item instanceof LocalVarSet set && loadOf(next) == set.localVar()
+                        && (next.sourceLine == -1 || next.sourceLine == set.sourceLine)) {
+                    // store x; load x -> dup; store x
+                    Dup dup = new Dup(set.localVar());
+                    dup.sourceLine = set.sourceLine;
+                    set.sourceLine = -1;
+                    items.set(i, dup);
+                    items.set(j, set);
+                    changed = true;
+                } else if (next instanceof Pop pop && pop.expr() == item) {
+                    if (item instanceof Dup || loadOf(item) != null) {
+                        // the value is simply discarded
+                        items.set(i, Nop.FILL);
+                        items.set(j, Nop.FILL);
+                        changed = true;
+                    } else if (item instanceof Box || item instanceof PrimitiveCast) {
+                        // conversions without side effects; discard the input instead
+                        Pop inputPop = new Pop(((Cast) item).a);
+                        inputPop.sourceLine = pop.sourceLine;
+                        items.set(i, Nop.FILL);
+                        items.set(j, inputPop);
+                        changed = true;
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    /**
+     * {@return the index of the next item after the given index which is not a fill item, or -1 if there is none}
+     */
+    private static int next(final List<Item> items, final int idx) {
+        int sz = items.size();
+        for (int i = idx + 1; i < sz; i++) {
+            if (items.get(i) != Nop.FILL) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@return the variable loaded by the given item, or {@code null} if it is not a plain local variable load}
+     */
+    private static LocalVarImpl loadOf(final Item item) {
+        if (item instanceof LocalVarImpl lv) {
+            return lv;
+        } else if (item instanceof BoundItem bi && bi.item() instanceof LocalVarImpl lv) {
+            return lv;
+        } else {
+            return null;
+        }
+    }
+}
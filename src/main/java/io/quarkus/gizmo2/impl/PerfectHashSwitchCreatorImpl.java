@@ -1,5 +1,7 @@
 package io.quarkus.gizmo2.impl;
 
+import static java.lang.constant.ConstantDescs.*;
+
 import java.lang.constant.ClassDesc;
 import java.util.Comparator;
 import java.util.List;
@@ -18,6 +20,8 @@ sealed abstract class PerfectHashSwitchCreatorImpl<C extends ConstImpl> extends
         super(enclosing, switchVal, type, constantType);
     }
 
+    abstract void hash(CodeBuilder cb);
+
     public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
         Label fallOut, nonMatching;
         if (default_ == null) {
@@ -37,12 +41,8 @@ sealed abstract class PerfectHashSwitchCreatorImpl<C extends ConstImpl> extends
 
         hash(cb);
         smb.pop(); // switch value
-        if ((double) casesByConstant.size() / ((double) (max - min)) >= TABLESWITCH_DENSITY) {
-            cb.tableswitch(min, max, nonMatching, switchCases);
-        } else {
-            cb.lookupswitch(nonMatching, switchCases);
-        }
-        smb.wroteCode();
+        smb.push(CD_int); // hash
+        SwitchLowering.write(cb, smb, enclosing.owner().gizmo.switchCostModel(), switchCases, nonMatching);
         StackMapBuilder.Saved saved = smb.save();
 
         // now write the cases
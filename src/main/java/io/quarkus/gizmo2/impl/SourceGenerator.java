@@ -25,8 +25,10 @@ import io.quarkus.gizmo2.impl.constant.EnumConst;
 import io.quarkus.gizmo2.impl.constant.FieldVarHandleConst;
 import io.quarkus.gizmo2.impl.constant.IntBasedConst;
 import io.quarkus.gizmo2.impl.constant.InvokeConst;
+import io.quarkus.gizmo2.impl.constant.LargeCollectionConst;
 import io.quarkus.gizmo2.impl.constant.MethodHandleConst;
 import io.quarkus.gizmo2.impl.constant.MethodTypeConst;
+import io.quarkus.gizmo2.impl.constant.PrimitiveArrayConst;
 import io.quarkus.gizmo2.impl.constant.StaticFieldVarHandleConst;
 import io.quarkus.gizmo2.impl.constant.StaticFinalFieldConst;
 import io.smallrye.classfile.Annotation;
@@ -717,6 +719,51 @@ public final class SourceGenerator {
         return buf.append(')');
     }
 
+    /**
+     * Appends a large collection constant expression.
+     * Renders as {@code const Type.copyOf(chunk + chunk + ...)}, where each chunk is a list constant.
+     *
+     * @param lc the large collection constant (must not be {@code null})
+     * @param buf the string builder to append to (must not be {@code null})
+     * @param sb the source builder for import tracking (must not be {@code null})
+     * @return the buffer, for chaining
+     */
+    public static StringBuilder exprLargeCollectionConst(LargeCollectionConst lc, StringBuilder buf, SourceBuilder sb) {
+        buf.append("const ").append(typeName(lc.type(), sb)).append(".copyOf(");
+        var chunks = lc.chunks();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                buf.append(" + ");
+            }
+            expr(buf, chunks.get(i), sb);
+        }
+        return buf.append(')');
+    }
+
+    /**
+     * Appends a primitive array constant expression.
+     * Renders as {@code const new int[] { 1, 2, 3 }}.
+     *
+     * @param pac the primitive array constant (must not be {@code null})
+     * @param buf the string builder to append to (must not be {@code null})
+     * @param sb the source builder for import tracking (must not be {@code null})
+     * @return the buffer, for chaining
+     */
+    public static StringBuilder exprPrimitiveArrayConst(PrimitiveArrayConst pac, StringBuilder buf, SourceBuilder sb) {
+        buf.append("const new ").append(typeName(pac.type(), sb)).append(" {");
+        int length = pac.length();
+        for (int i = 0; i < length; i++) {
+            buf.append(i > 0 ? ", " : " ");
+            Object value = pac.get(i);
+            if (value instanceof Character c) {
+                buf.append((int) c.charValue());
+            } else {
+                buf.append(value);
+            }
+        }
+        return buf.append(length > 0 ? " }" : "}");
+    }
+
     /**
      * Appends a static final field constant expression.
      *
@@ -188,7 +188,7 @@ public final class StackMapBuilder {
             }
         }
         // fast path: just copy our list (or a sublist of our list)
-        return cachedList(end == locals.size() ? locals : locals.subList(0, end - 1));
+        return cachedList(end == locals.size() ? locals : locals.subList(0, end));
     }
 
     /**
@@ -247,5 +247,12 @@ public final class StackMapBuilder {
             this.stack = stack;
             this.locals = locals;
         }
+
+        /**
+         * {@return the number of values on the saved stack}
+         */
+        int stackSize() {
+            return stack.length;
+        }
     }
 }
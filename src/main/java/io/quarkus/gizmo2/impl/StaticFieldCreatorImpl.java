@@ -1,5 +1,6 @@
 package io.quarkus.gizmo2.impl;
 
+import static io.smallrye.classfile.ClassFile.*;
 import static java.lang.constant.ConstantDescs.*;
 
 import java.lang.constant.ClassDesc;
@@ -70,6 +71,9 @@ public sealed abstract class StaticFieldCreatorImpl extends FieldCreatorImpl imp
 
     void accept(Consumer<StaticFieldCreator> builder) {
         builder.accept(this);
+        if ((modifiers & ACC_FINAL) != 0) {
+            tc.finalStaticFields.add(desc());
+        }
         if (initializer != null) {
             tc.staticInitializer(initializer);
         }
@@ -4,16 +4,36 @@ import static java.lang.constant.ConstantDescs.*;
 
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import io.quarkus.gizmo2.Expr;
 import io.quarkus.gizmo2.impl.constant.StringConst;
 import io.smallrye.classfile.CodeBuilder;
 import io.smallrye.classfile.Label;
+import io.smallrye.classfile.TypeKind;
+import io.smallrye.classfile.instruction.SwitchCase;
 
 /**
  * A switch over {@code String} objects.
+ * Large switches dispatch on a perfect hash of the string length and a few of its characters,
+ * if one can be found for the set of case constants, followed by a single {@code equals} test.
+ * Otherwise, the switch dispatches on {@link String#hashCode()}.
  */
 public final class StringSwitchCreatorImpl extends HashSwitchCreatorImpl<StringConst> {
+    /**
+     * The minimum number of case constants for which a perfect hash is considered.
+     */
+    static final int MIN_PERFECT_HASH_CASES = 16;
+    /**
+     * The maximum number of character positions in a perfect hash.
+     */
+    static final int MAX_PERFECT_HASH_POSITIONS = 4;
+
     StringSwitchCreatorImpl(final BlockCreatorImpl enclosing, final Expr switchVal, final ClassDesc type) {
         super(enclosing, switchVal, type, StringConst.class);
     }
@@ -38,4 +58,147 @@ public final class StringSwitchCreatorImpl extends HashSwitchCreatorImpl<StringC
     void hash(final CodeBuilder cb) {
         cb.invokevirtual(CD_String, "hashCode", MethodTypeDesc.of(CD_int));
     }
+
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        int[] positions = casesByConstant.size() < MIN_PERFECT_HASH_CASES ? null : findPerfectHash();
+        if (positions == null) {
+            super.writeCode(cb, block, smb);
+            return;
+        }
+        Label fallOut, nonMatching;
+        if (default_ == null) {
+            fallOut = nonMatching = block.newLabel();
+        } else {
+            fallOut = default_.endLabel();
+            nonMatching = default_.startLabel();
+            if (fallThrough) {
+                default_.breakTarget();
+            }
+        }
+
+        List<Map.Entry<StringConst, CaseCreatorImpl>> sortedCases = casesByConstant.entrySet().stream()
+                .sorted(Comparator.comparingInt(e -> perfectHash(e.getKey().desc(), positions)))
+                .toList();
+        Label[] caseLabels = new Label[sortedCases.size()];
+        SwitchCase[] switchCases = new SwitchCase[sortedCases.size()];
+        for (int i = 0; i < caseLabels.length; i++) {
+            caseLabels[i] = cb.newLabel();
+            switchCases[i] = SwitchCase.of(perfectHash(sortedCases.get(i).getKey().desc(), positions), caseLabels[i]);
+        }
+        int minLength = casesByConstant.keySet().stream().mapToInt(c -> c.desc().length()).min().orElseThrow();
+        int maxLength = casesByConstant.keySet().stream().mapToInt(c -> c.desc().length()).max().orElseThrow();
+
+        int strIdx = cb.allocateLocal(TypeKind.REFERENCE);
+        cb.astore(strIdx);
+        smb.pop(); // switch value
+        smb.store(strIdx, CD_String);
+        int lenIdx = cb.allocateLocal(TypeKind.INT);
+        cb.aload(strIdx);
+        cb.invokevirtual(CD_String, "length", MethodTypeDesc.of(CD_int));
+        cb.istore(lenIdx);
+        smb.store(lenIdx, CD_int);
+        // every character position of the hash is within bounds for strings of these lengths
+        if (minLength > 0) {
+            cb.iload(lenIdx);
+            cb.loadConstant(Integer.valueOf(minLength));
+            cb.if_icmplt(nonMatching);
+        }
+        cb.iload(lenIdx);
+        cb.loadConstant(Integer.valueOf(maxLength));
+        cb.if_icmpgt(nonMatching);
+        smb.wroteCode();
+        cb.iload(lenIdx);
+        for (int position : positions) {
+            cb.loadConstant(Integer.valueOf(31));
+            cb.imul();
+            cb.aload(strIdx);
+            if (position >= 0) {
+                cb.loadConstant(Integer.valueOf(position));
+            } else {
+                cb.iload(lenIdx);
+                cb.loadConstant(Integer.valueOf(-position));
+                cb.isub();
+            }
+            cb.invokevirtual(CD_String, "charAt", MethodTypeDesc.of(CD_char, CD_int));
+            cb.iadd();
+        }
+        smb.push(CD_int); // hash
+        SwitchLowering.write(cb, smb, block.owner().gizmo.switchCostModel(), List.of(switchCases), nonMatching);
+
+        // each hash value belongs to exactly one case constant, which must still be compared
+        for (int i = 0; i < caseLabels.length; i++) {
+            Map.Entry<StringConst, CaseCreatorImpl> entry = sortedCases.get(i);
+            cb.labelBinding(caseLabels[i]);
+            smb.wroteCode();
+            smb.addFrameInfo(cb);
+            cb.aload(strIdx);
+            smb.push(CD_String);
+            equaller(cb, entry.getKey(), entry.getValue().body.startLabel(), smb);
+            cb.goto_(nonMatching);
+            smb.wroteCode();
+        }
+        writeBodies(cb, block, smb, fallOut);
+    }
+
+    /**
+     * Find the character positions of a perfect hash for the case constants of this switch.
+     * Positions are chosen greedily from those which are within bounds for every case constant,
+     * counting from the start of the string for non-negative positions, or from its end for negative positions.
+     *
+     * @return the positions, or {@code null} if no perfect hash was found
+     */
+    private int[] findPerfectHash() {
+        List<String> keys = casesByConstant.keySet().stream().map(StringConst::desc).toList();
+        int minLength = keys.stream().mapToInt(String::length).min().orElseThrow();
+        int[] positions = new int[0];
+        int distinct = countDistinct(keys, positions);
+        while (distinct < keys.size()) {
+            if (positions.length == MAX_PERFECT_HASH_POSITIONS) {
+                return null;
+            }
+            int[] best = null;
+            int bestDistinct = distinct;
+            for (int i = 0; i < minLength; i++) {
+                for (int candidate : new int[] { i, -i - 1 }) {
+                    int[] next = Arrays.copyOf(positions, positions.length + 1);
+                    next[positions.length] = candidate;
+                    int nextDistinct = countDistinct(keys, next);
+                    if (nextDistinct > bestDistinct) {
+                        best = next;
+                        bestDistinct = nextDistinct;
+                    }
+                }
+            }
+            if (best == null) {
+                // no position tells the remaining keys apart
+                return null;
+            }
+            positions = best;
+            distinct = bestDistinct;
+        }
+        return positions;
+    }
+
+    private static int countDistinct(final List<String> keys, final int[] positions) {
+        Set<Integer> hashes = new HashSet<>();
+        for (String key : keys) {
+            hashes.add(Integer.valueOf(perfectHash(key, positions)));
+        }
+        return hashes.size();
+    }
+
+    /**
+     * {@return the hash of the given string over the given character positions}
+     * This must be kept in sync with the code generated by {@link #writeCode}.
+     *
+     * @param str the string (must not be {@code null})
+     * @param positions the character positions (must not be {@code null})
+     */
+    private static int perfectHash(final String str, final int[] positions) {
+        int hash = str.length();
+        for (int position : positions) {
+            hash = hash * 31 + str.charAt(position >= 0 ? position : str.length() + position);
+        }
+        return hash;
+    }
 }
@@ -19,11 +19,10 @@ import io.quarkus.gizmo2.creator.SwitchCreator;
 import io.quarkus.gizmo2.impl.constant.ConstImpl;
 import io.quarkus.gizmo2.impl.constant.VoidConst;
 import io.smallrye.classfile.CodeBuilder;
+import io.smallrye.classfile.Label;
 
 public sealed abstract class SwitchCreatorImpl<C extends ConstImpl> extends Item implements SwitchCreator
-        permits HashSwitchCreatorImpl, PerfectHashSwitchCreatorImpl {
-
-    static final double TABLESWITCH_DENSITY = 0.9;
+        permits ClassSwitchCreatorImpl, HashSwitchCreatorImpl, PerfectHashSwitchCreatorImpl {
 
     /**
      * The enclosing block.
@@ -53,10 +52,6 @@ public sealed abstract class SwitchCreatorImpl<C extends ConstImpl> extends Item
      * The default case.
      */
     BlockCreatorImpl default_;
-    /**
-     * The minimum and maximum hash values.
-     */
-    int min, max;
     boolean fallThrough;
     boolean done;
     /**
@@ -108,7 +103,41 @@ public sealed abstract class SwitchCreatorImpl<C extends ConstImpl> extends Item
 
     abstract int staticHash(C val);
 
-    abstract void hash(CodeBuilder cb);
+    /**
+     * Write the case blocks in declaration order, followed by the default block.
+     * The dispatch code must have been written already, and must leave nothing on the stack.
+     *
+     * @param cb the code builder (must not be {@code null})
+     * @param block the enclosing block (must not be {@code null})
+     * @param smb the stack map builder (must not be {@code null})
+     * @param fallOut the label to jump to from case blocks which fall through (must not be {@code null})
+     */
+    void writeBodies(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb, final Label fallOut) {
+        StackMapBuilder.Saved saved = smb.save();
+        for (CaseCreatorImpl case_ : cases) {
+            case_.body.branchTarget();
+            case_.body.writeCode(cb, block, smb);
+            if (case_.body.mayFallThrough()) {
+                cb.goto_(fallOut);
+                smb.wroteCode();
+            }
+            smb.restore(saved);
+        }
+
+        // finally, the default block
+        if (default_ == null) {
+            // `fallOut` and `nonMatching` refer to the same object, so we need to bind it just once
+            cb.labelBinding(fallOut);
+            if (fallThrough) {
+                smb.addFrameInfo(cb);
+            }
+        } else {
+            default_.writeCode(cb, block, smb);
+        }
+        if (!Util.isVoid(type)) {
+            smb.push(type());
+        }
+    }
 
     void accept(Consumer<? super SwitchCreatorImpl<C>> builder) {
         try {
@@ -194,18 +223,6 @@ public sealed abstract class SwitchCreatorImpl<C extends ConstImpl> extends Item
                 throw new IllegalStateException("No more case values may be added");
             }
             state = ST_CASE_VALS;
-            int hc = staticHash(castVal);
-            if (casesByConstant.isEmpty()) {
-                // the very first value
-                min = max = hc;
-            } else {
-                if (hc < min) {
-                    min = hc;
-                }
-                if (hc > max) {
-                    max = hc;
-                }
-            }
             CaseCreatorImpl existing = casesByConstant.putIfAbsent(castVal, this);
             if (existing != null) {
                 throw new IllegalArgumentException("Duplicate case for constant " + val);
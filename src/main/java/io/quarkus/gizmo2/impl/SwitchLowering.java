@@ -0,0 +1,129 @@
+package io.quarkus.gizmo2.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.quarkus.gizmo2.SwitchCostModel;
+import io.smallrye.classfile.CodeBuilder;
+import io.smallrye.classfile.Label;
+import io.smallrye.classfile.instruction.SwitchCase;
+
+/**
+ * The lowering of the dispatch of a switch on an {@code int} value.
+ * The case values are split into clusters according to a {@link SwitchCostModel}:
+ * dense clusters are dispatched by a {@code tableswitch}, and the values between them by a {@code lookupswitch}.
+ * Multiple clusters are selected by a binary search on the switch value.
+ */
+final class SwitchLowering {
+    private SwitchLowering() {
+    }
+
+    /**
+     * Write the dispatch code for the given cases.
+     * The switch value must be on the top of the stack, and is consumed.
+     *
+     * @param cb the code builder (must not be {@code null})
+     * @param smb the stack map builder, with the switch value on the top of its stack (must not be {@code null})
+     * @param costModel the cost model (must not be {@code null})
+     * @param cases the cases, sorted by distinct value (must not be {@code null})
+     * @param default_ the label to jump to if no case matches (must not be {@code null})
+     */
+    static void write(final CodeBuilder cb, final StackMapBuilder smb, final SwitchCostModel costModel,
+            final List<SwitchCase> cases, final Label default_) {
+        List<Cluster> clusters = cluster(cases, costModel);
+        StackMapBuilder.Saved saved = smb.save();
+        writeTree(cb, smb, saved, clusters, 0, clusters.size(), default_);
+        smb.restore(saved);
+        smb.pop(); // switch value
+        smb.wroteCode();
+    }
+
+    private static void writeTree(final CodeBuilder cb, final StackMapBuilder smb, final StackMapBuilder.Saved saved,
+            final List<Cluster> clusters, final int from, final int to, final Label default_) {
+        if (to - from == 1) {
+            clusters.get(from).writeCode(cb, default_);
+            smb.wroteCode();
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        Label upper = cb.newLabel();
+        cb.dup();
+        cb.loadConstant(Integer.valueOf(clusters.get(mid).low()));
+        cb.if_icmpge(upper);
+        smb.wroteCode();
+        writeTree(cb, smb, saved, clusters, from, mid, default_);
+        smb.restore(saved);
+        cb.labelBinding(upper);
+        smb.addFrameInfo(cb);
+        writeTree(cb, smb, saved, clusters, mid, to, default_);
+    }
+
+    /**
+     * Split the given cases into clusters.
+     * The split minimizes the number of clusters, counting each value which is not in a {@code tableswitch}
+     * cluster as a cluster of its own; consecutive such values are then merged into a {@code lookupswitch} cluster.
+     *
+     * @param cases the cases, sorted by distinct value (must not be {@code null})
+     * @param costModel the cost model (must not be {@code null})
+     * @return the clusters, in order of their values (not {@code null})
+     */
+    static List<Cluster> cluster(final List<SwitchCase> cases, final SwitchCostModel costModel) {
+        int n = cases.size();
+        int[] partitions = new int[n + 1];
+        int[] tableEnd = new int[n + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            partitions[i] = partitions[i + 1] + 1;
+            tableEnd[i] = -1;
+            long low = cases.get(i).caseValue();
+            for (int j = i + costModel.minTableCases() - 1; j < n; j++) {
+                long range = cases.get(j).caseValue() - low + 1;
+                if ((j - i + 1) * 100L >= range * costModel.minTableDensity() && partitions[j + 1] + 1 < partitions[i]) {
+                    partitions[i] = partitions[j + 1] + 1;
+                    tableEnd[i] = j + 1;
+                }
+            }
+        }
+        List<Cluster> clusters = new ArrayList<>();
+        int lookupStart = 0;
+        int i = 0;
+        while (i < n) {
+            if (tableEnd[i] == -1) {
+                i++;
+            } else {
+                if (lookupStart < i) {
+                    clusters.add(new Cluster(cases.subList(lookupStart, i), false));
+                }
+                clusters.add(new Cluster(cases.subList(i, tableEnd[i]), true));
+                i = lookupStart = tableEnd[i];
+            }
+        }
+        if (lookupStart < n || clusters.isEmpty()) {
+            clusters.add(new Cluster(cases.subList(lookupStart, n), false));
+        }
+        return clusters;
+    }
+
+    /**
+     * A cluster of cases.
+     *
+     * @param cases the cases, sorted by value (not {@code null})
+     * @param table {@code true} to dispatch by {@code tableswitch}, or {@code false} to dispatch by {@code lookupswitch}
+     */
+    record Cluster(List<SwitchCase> cases, boolean table) {
+        int low() {
+            return cases.isEmpty() ? 0 : cases.get(0).caseValue();
+        }
+
+        int high() {
+            return cases.get(cases.size() - 1).caseValue();
+        }
+
+        void writeCode(final CodeBuilder cb, final Label default_) {
+            if (table) {
+                cb.tableswitch(low(), high(), default_, cases);
+            } else {
+                cb.lookupswitch(default_, cases);
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package io.quarkus.gizmo2.impl;
 
+import static io.smallrye.common.constraint.Assert.*;
+
 import java.lang.constant.ClassDesc;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import io.quarkus.gizmo2.FinallyStrategy;
 import io.quarkus.gizmo2.LocalVar;
 import io.quarkus.gizmo2.creator.BlockCreator;
 import io.quarkus.gizmo2.creator.TryCreator;
@@ -101,16 +104,21 @@ public final class TryCreatorImpl implements TryCreator {
     }
 
     public void finally_(final Consumer<BlockCreator> builder) {
+        finally_(body.owner().gizmo.finallyStrategy(), builder);
+    }
+
+    public void finally_(final FinallyStrategy strategy, final Consumer<BlockCreator> builder) {
+        checkNotNullParam("strategy", strategy);
         advanceToState(ST_FINALLY);
         if (tryFinally != null) {
             throw new IllegalStateException("Only one finally block is allowed");
         }
         if (tryCatch == null) {
-            tryFinally = new TryFinally(body, builder);
+            tryFinally = new TryFinally(body, builder, strategy);
         } else {
             // both try/catch and try/finally
             BlockCreatorImpl finallyBody = new BlockCreatorImpl(body.parent());
-            tryFinally = new TryFinally(finallyBody, builder);
+            tryFinally = new TryFinally(finallyBody, builder, strategy);
             body.tryFinally = tryFinally;
             tryFinally.body().addItem(tryCatch);
         }
@@ -3,15 +3,20 @@ package io.quarkus.gizmo2.impl;
 import static java.lang.constant.ConstantDescs.*;
 
 import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import io.quarkus.gizmo2.Expr;
+import io.quarkus.gizmo2.FinallyStrategy;
 import io.quarkus.gizmo2.creator.BlockCreator;
 import io.smallrye.classfile.CodeBuilder;
 import io.smallrye.classfile.Label;
 import io.smallrye.classfile.TypeKind;
+import io.smallrye.classfile.instruction.SwitchCase;
 
 /**
  * A {@code try}-{@code finally} block.
@@ -20,11 +25,13 @@ final class TryFinally extends Item {
     final BlockCreatorImpl body;
     final BlockCreatorImpl cleanupTemplate;
     final Consumer<BlockCreator> cleanupBuilder;
+    final FinallyStrategy strategy;
     Label cleanupAndYield;
     final Map<CleanupKey, Cleanup> cleanups = new LinkedHashMap<>();
 
-    TryFinally(final BlockCreatorImpl body, final Consumer<BlockCreator> cleanupBuilder) {
+    TryFinally(final BlockCreatorImpl body, final Consumer<BlockCreator> cleanupBuilder, final FinallyStrategy strategy) {
         this.body = body;
+        this.strategy = strategy;
         cleanupTemplate = new BlockCreatorImpl(body.parent());
         cleanupTemplate.branchTarget();
         this.cleanupBuilder = cleanupBuilder;
@@ -82,6 +89,11 @@ final class TryFinally extends Item {
         StackMapBuilder.Saved saved = smb.save();
         body.writeCode(cb, block, smb);
         cb.exceptionCatchAll(body.startLabel(), body.endLabel(), cleanupAndThrow);
+        if (strategy == FinallyStrategy.SHARED && cleanupTemplate.mayFallThrough() && Util.isVoid(body.type())
+                && saved.stackSize() == 0) {
+            writeShared(cb, block, smb, saved, bodyFallsThrough, cleanupAndThrow);
+            return;
+        }
         if (bodyFallsThrough) {
             cb.goto_(cleanupAndYield());
             smb.wroteCode();
@@ -90,10 +102,10 @@ final class TryFinally extends Item {
         BlockCreatorImpl copy;
         // handle each specific case separately, since they may all have distinct stack maps
         for (Cleanup value : cleanups.values()) {
-            smb.restore(value.action().saved());
-            cb.labelBinding(value.label());
-            smb.addFrameInfo(cb);
             if (!cleanupTemplate.mayFallThrough()) {
+                smb.restore(value.action().saved());
+                cb.labelBinding(value.label());
+                smb.addFrameInfo(cb);
                 // skip it
                 switch (TypeKind.from(value.type()).slotSize()) {
                     case 0 -> {
@@ -110,14 +122,7 @@ final class TryFinally extends Item {
                 cb.goto_(cleanupAndYield());
                 smb.wroteCode();
             } else {
-                copy = new BlockCreatorImpl(body.parent(), value.type());
-                copy.accept((b, val) -> {
-                    cleanupBuilder.accept(b);
-                    if (b.active()) {
-                        value.action().terminate(b, val);
-                    }
-                });
-                copy.writeCode(cb, block, smb);
+                writeCopy(cb, block, smb, value);
             }
         }
         smb.restore(saved);
@@ -162,6 +167,162 @@ final class TryFinally extends Item {
         }
     }
 
+    /**
+     * Write a copy of the cleanup which completes the given exit.
+     */
+    private void writeCopy(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb,
+            final Cleanup value) {
+        smb.restore(value.action().saved());
+        cb.labelBinding(value.label());
+        smb.addFrameInfo(cb);
+        BlockCreatorImpl copy = new BlockCreatorImpl(body.parent(), value.type());
+        copy.accept((b, val) -> {
+            cleanupBuilder.accept(b);
+            if (b.active()) {
+                value.action().terminate(b, val);
+            }
+        });
+        copy.writeCode(cb, block, smb);
+    }
+
+    /**
+     * Write the exits of the body using a single shared copy of the cleanup.
+     * Each exit saves its value (if any) into a local variable of the value's type, stores zero or {@code null}
+     * into the other value variables so that every path agrees on their types, and records its index in the selector
+     * variable. After the cleanup, the selector is used to dispatch to the code which completes each exit.
+     * The fall-through exit (if any) is last, so that it may fall out of the shared region.
+     */
+    private void writeShared(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb,
+            final StackMapBuilder.Saved saved, final boolean bodyFallsThrough, final Label cleanupAndThrow) {
+        // exits with extra values on the stack cannot reach a common frame, so they keep their own copy
+        List<Cleanup> shared = new ArrayList<>(cleanups.size());
+        for (Cleanup value : cleanups.values()) {
+            if (value.action().saved().stackSize() == (Util.isVoid(value.type()) ? 0 : 1)) {
+                shared.add(value);
+            }
+        }
+        // the slots of the body are free now
+        Map<ClassDesc, Integer> slots = new LinkedHashMap<>();
+        slots.put(CD_Throwable, Integer.valueOf(cb.allocateLocal(TypeKind.REFERENCE)));
+        for (Cleanup value : shared) {
+            ClassDesc type = value.type();
+            if (!Util.isVoid(type) && !slots.containsKey(type)) {
+                slots.put(type, Integer.valueOf(cb.allocateLocal(TypeKind.from(type))));
+            }
+        }
+        int selector = cb.allocateLocal(TypeKind.INT);
+        int throwIdx = shared.size();
+        int cnt = throwIdx + (bodyFallsThrough ? 2 : 1);
+        Label sharedCleanup = cb.newLabel();
+        if (bodyFallsThrough) {
+            // still in the state at the end of the body
+            enterShared(cb, smb, saved, slots, selector, CD_void, throwIdx + 1);
+            cb.goto_(sharedCleanup);
+            smb.wroteCode();
+        }
+        for (Cleanup value : cleanups.values()) {
+            if (!shared.contains(value)) {
+                writeCopy(cb, block, smb, value);
+            }
+        }
+        for (int i = 0; i < shared.size(); i++) {
+            Cleanup value = shared.get(i);
+            smb.restore(value.action().saved());
+            cb.labelBinding(value.label());
+            smb.addFrameInfo(cb);
+            enterShared(cb, smb, saved, slots, selector, value.type(), i);
+            cb.goto_(sharedCleanup);
+            smb.wroteCode();
+        }
+        // the exception handler falls through to the shared cleanup
+        smb.restore(saved);
+        cb.labelBinding(cleanupAndThrow);
+        smb.clearStack();
+        smb.push(CD_Throwable);
+        smb.addFrameInfo(cb);
+        enterShared(cb, smb, saved, slots, selector, CD_Throwable, throwIdx);
+        cb.labelBinding(sharedCleanup);
+        smb.addFrameInfo(cb);
+        StackMapBuilder.Saved sharedState = smb.save();
+        BlockCreatorImpl copy = new BlockCreatorImpl(body.parent());
+        copy.accept(cleanupBuilder);
+        copy.writeCode(cb, block, smb);
+        // dispatch to the rest of the exit
+        Label[] targets = new Label[cnt];
+        for (int i = 0; i < cnt; i++) {
+            targets[i] = cb.newLabel();
+        }
+        if (cnt == 2) {
+            cb.iload(selector);
+            cb.ifne(targets[1]);
+            smb.wroteCode();
+        } else if (cnt > 2) {
+            cb.iload(selector);
+            cb.tableswitch(0, cnt - 1, targets[cnt - 1], IntStream.range(0, cnt)
+                    .mapToObj(i -> SwitchCase.of(i, targets[i]))
+                    .toList());
+            smb.wroteCode();
+        }
+        for (int i = 0; i < cnt; i++) {
+            smb.restore(sharedState);
+            cb.labelBinding(targets[i]);
+            if (i > 0 || cnt > 2) {
+                smb.addFrameInfo(cb);
+            }
+            if (i < throwIdx) {
+                Cleanup value = shared.get(i);
+                ClassDesc type = value.type();
+                if (!Util.isVoid(type)) {
+                    cb.loadLocal(TypeKind.from(type), slots.get(type).intValue());
+                    smb.push(type);
+                }
+                copy = new BlockCreatorImpl(body.parent(), type);
+                copy.accept((b, val) -> value.action().terminate(b, val));
+                copy.writeCode(cb, block, smb);
+            } else if (i == throwIdx) {
+                cb.aload(slots.get(CD_Throwable).intValue());
+                cb.athrow();
+                smb.wroteCode();
+            }
+            // otherwise, fall out
+        }
+        smb.restore(saved);
+    }
+
+    /**
+     * Save the value of an exit, which is on the top of the stack, and record its index,
+     * leaving the state expected by the shared cleanup.
+     */
+    private static void enterShared(final CodeBuilder cb, final StackMapBuilder smb, final StackMapBuilder.Saved saved,
+            final Map<ClassDesc, Integer> slots, final int selector, final ClassDesc type, final int index) {
+        int valueSlot = -1;
+        if (!Util.isVoid(type)) {
+            valueSlot = slots.get(type).intValue();
+            cb.storeLocal(TypeKind.from(type), valueSlot);
+        }
+        // locals of the body are dead; drop them from the frame
+        smb.restore(saved);
+        for (Map.Entry<ClassDesc, Integer> entry : slots.entrySet()) {
+            int slot = entry.getValue().intValue();
+            TypeKind kind = TypeKind.from(entry.getKey());
+            if (slot != valueSlot) {
+                switch (kind) {
+                    case LONG -> cb.lconst_0();
+                    case FLOAT -> cb.fconst_0();
+                    case DOUBLE -> cb.dconst_0();
+                    case REFERENCE -> cb.aconst_null();
+                    default -> cb.iconst_0();
+                }
+                cb.storeLocal(kind, slot);
+            }
+            smb.store(slot, entry.getKey());
+        }
+        cb.loadConstant(Integer.valueOf(index));
+        cb.istore(selector);
+        smb.store(selector, CD_int);
+        smb.wroteCode();
+    }
+
     abstract static class CleanupKey {
         private final StackMapBuilder.Saved saved;
 
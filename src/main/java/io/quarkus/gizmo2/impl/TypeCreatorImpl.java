@@ -7,17 +7,23 @@ import static java.lang.constant.ConstantDescs.*;
 import static java.lang.invoke.MethodHandles.Lookup.ClassOption.*;
 
 import java.io.ByteArrayOutputStream;
-import java.io.CharConversionException;
-import java.io.EOFException;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.ConstantDescs;
+import java.lang.constant.DirectMethodHandleDesc;
 import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodHandleDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -34,6 +40,7 @@ import io.quarkus.gizmo2.Const;
 import io.quarkus.gizmo2.Expr;
 import io.quarkus.gizmo2.GenericType;
 import io.quarkus.gizmo2.GenericTypes;
+import io.quarkus.gizmo2.LambdaStrategy;
 import io.quarkus.gizmo2.LocalVar;
 import io.quarkus.gizmo2.ParamVar;
 import io.quarkus.gizmo2.StaticFieldVar;
@@ -99,6 +106,10 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
      * The map value is {@code true} if the member is {@code static}, or {@code false} if it is not.
      */
     final Map<FieldDesc, Boolean> fields = new LinkedHashMap<>();
+    /**
+     * The {@code static final} fields on the class, which may only be assigned by {@code <clinit>} itself.
+     */
+    final Set<FieldDesc> finalStaticFields = new HashSet<>();
     /**
      * All methods on the class.
      * The map value is {@code true} if the member is {@code static}, or {@code false} if it is not.
@@ -107,6 +118,35 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
     final Set<ConstructorDesc> constructors = new LinkedHashSet<>();
 
     int lambdaAndAnonClassCounter;
+    /**
+     * The bytes of the lambda classes which are stored in a resource, or {@code null} if there are none.
+     * Only used on the top-level type.
+     */
+    private ByteArrayOutputStream lambdaClasses;
+    /**
+     * The constants which define the lambda classes of this type, keyed by the class bytes.
+     */
+    private final Map<ByteBuffer, DynamicConstantDesc<?>> lambdaClassConstants = new HashMap<>();
+    /**
+     * The number of helper methods created by method splitting, used to name them.
+     */
+    int methodSplitCounter;
+    /**
+     * The number of lambdas defined in this type's code, for metrics.
+     */
+    int lambdaCount;
+    /**
+     * The number of items added to blocks of this type's code, for flight recorder events.
+     */
+    int itemCount;
+    /**
+     * The time that the builder was entered, for metrics (only set when there is a listener).
+     */
+    private long builderStart;
+    /**
+     * The wall time spent in the builder, for metrics (only set when there is a listener).
+     */
+    long builderNanos;
 
     TypeCreatorImpl(final GizmoImpl gizmo, final ClassDesc type, final ClassOutput output, final ClassBuilder zb) {
         this(gizmo, type, output, zb, null);
@@ -244,13 +284,13 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         checkNotNullParam("simpleName", simpleName);
         checkNotNullParam("builder", builder);
         ClassDesc memberDesc = computeMemberDesc(simpleName);
-        ClassFile cf = gizmo.createClassFile();
-        byte[] bytes = cf.build(memberDesc, zb -> {
+        byte[] bytes = gizmo.build(memberDesc, zb -> {
             MemberClassCreatorImpl tc = new MemberClassCreatorImpl(gizmo, memberDesc, output(), zb, this);
             tc.preAccept();
             builder.accept(tc);
             registerNestedType(tc, simpleName, tc.modifiers);
             tc.postAccept();
+            return tc;
         });
         output.write(memberDesc, bytes);
         return memberDesc;
@@ -268,13 +308,13 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         checkNotNullParam("simpleName", simpleName);
         checkNotNullParam("builder", builder);
         ClassDesc memberDesc = computeMemberDesc(simpleName);
-        ClassFile cf = gizmo.createClassFile();
-        byte[] bytes = cf.build(memberDesc, zb -> {
+        byte[] bytes = gizmo.build(memberDesc, zb -> {
             MemberInterfaceCreatorImpl tc = new MemberInterfaceCreatorImpl(gizmo, memberDesc, output(), zb, this);
             tc.preAccept();
             builder.accept(tc);
             registerNestedType(tc, simpleName, tc.modifiers);
             tc.postAccept();
+            return tc;
         });
         output.write(memberDesc, bytes);
         return memberDesc;
@@ -416,9 +456,15 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
     }
 
     void preAccept() {
+        if (gizmo.listener() != null) {
+            builderStart = System.nanoTime();
+        }
     }
 
     void postAccept() {
+        if (gizmo.listener() != null) {
+            builderNanos = System.nanoTime() - builderStart;
+        }
         zb.withVersion(version.major(), 0);
         zb.withSuperclass(superSig.desc());
         zb.withInterfaces(interfaceSigs.stream().map(d -> zb.constantPool().classEntry(d.desc())).toList());
@@ -428,9 +474,6 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         }
         addVisible(zb);
         addInvisible(zb);
-        if (!nestMembers.isEmpty()) {
-            zb.with(NestMembersAttribute.ofSymbols(nestMembers));
-        }
         if (!innerClassInfos.isEmpty()) {
             zb.with(InnerClassesAttribute.of(innerClassInfos));
         }
@@ -488,10 +531,21 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
                     if (sourceBuilder != null) {
                         SourceGenerator.generateStaticInitializer(sourceBuilder, bc);
                     }
+                    int chunkSize = gizmo.staticInitChunkSize();
+                    if (chunkSize > 0) {
+                        MethodSplitter.splitStaticInitializer(this, bc, chunkSize);
+                    }
                     bc.writeCode(cb, bc, new StackMapBuilder());
                 });
             });
         }
+        // after `<clinit>`, which may define nestmate lambda classes
+        if (!nestMembers.isEmpty()) {
+            zb.with(NestMembersAttribute.ofSymbols(nestMembers));
+        }
+        if (lambdaClasses != null) {
+            output.write("%s$lambdas.bin".formatted(Util.internalName(type)), lambdaClasses.toByteArray());
+        }
         // finalize and write source if source generation is enabled
         SourceBuilder sb = sourceBuilder;
         if (sb != null) {
@@ -601,13 +655,26 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         return false;
     }
 
-    void buildLambdaBootstrap() {
+    /**
+     * Build the bootstrap method which links lambda call sites.
+     * The call site receives the lambda class as a dynamic constant argument,
+     * so that call sites with identical lambda classes share one class definition.
+     * The call site also receives a cache of the lambda factory handles of this type,
+     * so that such call sites also share one factory handle (and one instance of a non-capturing lambda).
+     *
+     * @return the bootstrap method handle (not {@code null})
+     * @see #lambdaClassConstant(byte[])
+     * @see #lambdaHandleCacheConstant()
+     */
+    DirectMethodHandleDesc buildLambdaBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_CallSite,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_MethodType,
+                CD_Class,
+                CD_Map);
         if (getAndSetBootstrap(Bootstrap.LAMBDA)) {
-            MethodTypeDesc bootstrapType = MethodTypeDesc.of(
-                    CD_CallSite,
-                    CD_MethodHandles_Lookup,
-                    CD_String,
-                    CD_MethodType);
             gizmo.outputHandler().registerBootstrapMethod(
                     type,
                     "defineLambdaCallSite",
@@ -618,53 +685,260 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
                     smc -> {
                         smc.setAccess(AccessLevel.PRIVATE);
                         ParamVar lookup = smc.parameter("lookup", 0);
-                        ParamVar base64 = smc.parameter("base64", 1);
+                        smc.parameter("name", 1);
                         ParamVar methodType = smc.parameter("methodType", 2);
+                        ParamVar lambdaClass = smc.parameter("lambdaClass", 3);
+                        ParamVar cache = smc.parameter("cache", 4);
+                        smc.body(b0 -> {
+                            LocalVar handle = b0.localVar("handle", b0.cast(
+                                    b0.invokeInterface(MD_Map.get, cache, lambdaClass),
+                                    CD_MethodHandle));
+                            b0.if_(b0.isNull(handle), b1 -> {
+                                var ctorType = b1.localVar("ctorType", b1.invokeVirtual(
+                                        MD_MethodType.changeReturnType,
+                                        methodType,
+                                        Const.of(void.class)));
+                                var ctorHandle = b1.localVar("ctorHandle", b1.invokeVirtual(
+                                        MD_MethodHandles.Lookup.findConstructor,
+                                        lookup,
+                                        lambdaClass,
+                                        ctorType));
+                                b1.ifElse(b1.eq(
+                                        b1.invokeVirtual(MD_MethodType.parameterCount, methodType),
+                                        0), t2 -> {
+                                            LocalVar instance = t2.localVar("instance", t2.invokeVirtual(
+                                                    MD_invoke_returning_Object,
+                                                    ctorHandle));
+                                            t2.set(handle, t2.invokeStatic(
+                                                    MD_MethodHandles.constant,
+                                                    lambdaClass,
+                                                    instance));
+                                        }, f2 -> {
+                                            f2.set(handle, ctorHandle);
+                                        });
+                                // another call site may have raced us
+                                LocalVar existing = b1.localVar("existing", b1.invokeInterface(
+                                        MD_Map.putIfAbsent,
+                                        cache,
+                                        lambdaClass,
+                                        handle));
+                                b1.if_(b1.isNotNull(existing), b2 -> {
+                                    b2.set(handle, b2.cast(existing, CD_MethodHandle));
+                                });
+                            });
+                            b0.return_(b0.new_(CD_ConstantCallSite, b0.invokeVirtual(
+                                    MD_MethodHandle.asType,
+                                    handle,
+                                    methodType)));
+                        });
+                    });
+        }
+        return ofCallsiteBootstrap(type, "defineLambdaCallSite", CD_CallSite, CD_Class, CD_Map);
+    }
+
+    /**
+     * {@return the dynamic constant which holds the cache of lambda factory handles of this type}
+     * The cache is a concurrent map from lambda class to factory handle.
+     * It is created once, when the constant is first resolved.
+     */
+    DynamicConstantDesc<?> lambdaHandleCacheConstant() {
+        return DynamicConstantDesc.ofNamed(
+                BSM_INVOKE,
+                DEFAULT_NAME,
+                CD_Map,
+                MethodHandleDesc.ofConstructor(CD_ConcurrentHashMap));
+    }
+
+    /**
+     * {@return the dynamic constant which defines the lambda class with the given bytes}
+     * Lambda classes with identical bytes share one constant, and therefore one class definition at run time.
+     * Depending on the lambda strategy, the class bytes are either encoded into the constant name,
+     * or stored in the lambda classes resource of the top-level type.
+     *
+     * @param bytes the class bytes (must not be {@code null})
+     */
+    DynamicConstantDesc<?> lambdaClassConstant(final byte[] bytes) {
+        ByteBuffer key = ByteBuffer.wrap(bytes);
+        DynamicConstantDesc<?> constant = lambdaClassConstants.get(key);
+        if (constant == null) {
+            if (gizmo.lambdaStrategy() == LambdaStrategy.OPTIMIZED_RESOURCE) {
+                int offset = addLambdaClassBytes(bytes);
+                constant = DynamicConstantDesc.ofNamed(
+                        buildLambdaClassResourceBootstrap(),
+                        DEFAULT_NAME,
+                        CD_Class,
+                        lambdaClassesConstant(),
+                        Integer.valueOf(offset),
+                        Integer.valueOf(bytes.length));
+            } else {
+                constant = DynamicConstantDesc.ofNamed(
+                        buildLambdaClassBootstrap(),
+                        Base64.getUrlEncoder().encodeToString(bytes),
+                        CD_Class);
+            }
+            lambdaClassConstants.put(key, constant);
+        }
+        return constant;
+    }
+
+    /**
+     * Build the bootstrap method which defines a lambda class whose bytes are encoded in the constant name.
+     *
+     * @return the bootstrap method handle (not {@code null})
+     */
+    private DirectMethodHandleDesc buildLambdaClassBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_Class,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_Class);
+        if (getAndSetBootstrap(Bootstrap.LAMBDA_CLASS)) {
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "defineLambdaClass",
+                    bootstrapType);
+            staticMethod(
+                    "defineLambdaClass",
+                    bootstrapType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        ParamVar lookup = smc.parameter("lookup", 0);
+                        ParamVar base64 = smc.parameter("base64", 1);
+                        smc.parameter("type", 2);
                         smc.body(b0 -> {
                             var decoder = b0.localVar("decoder", b0.invokeStatic(MD_Base64.getUrlDecoder));
                             var bytes = b0.localVar("bytes",
                                     b0.invokeVirtual(MD_Base64.Decoder.decode_String, decoder, base64));
-                            var definedLookup = b0.localVar("definedLookup", b0.invokeVirtual(
-                                    MD_MethodHandles.Lookup.defineHiddenClass,
-                                    lookup,
-                                    bytes,
-                                    Const.of(false),
-                                    b0.newArray(CD_MethodHandles_Lookup_ClassOption, Const.of(NESTMATE))));
-                            var definedClass = b0.localVar("definedClass", b0.invokeVirtual(
-                                    MD_MethodHandles.Lookup.lookupClass,
-                                    definedLookup));
-                            var ctorType = b0.localVar("ctorType", b0.invokeVirtual(
-                                    MD_MethodType.changeReturnType,
-                                    methodType,
-                                    Const.of(void.class)));
-                            var ctorHandle = b0.localVar("ctorHandle", b0.invokeVirtual(
-                                    MD_MethodHandles.Lookup.findConstructor,
-                                    definedLookup,
-                                    definedClass,
-                                    ctorType));
-                            b0.ifElse(b0.eq(
-                                    b0.invokeVirtual(MD_MethodType.parameterCount, methodType),
-                                    0), t1 -> {
-                                        LocalVar instance = t1.localVar("instance", t1.invokeVirtual(
-                                                MD_invoke_returning_Object,
-                                                ctorHandle));
-                                        LocalVar constHandle = t1.localVar("constHandle", t1.invokeStatic(
-                                                MD_MethodHandles.constant,
-                                                definedClass,
-                                                instance));
-                                        t1.return_(t1.new_(CD_ConstantCallSite, t1.invokeVirtual(
-                                                MD_MethodHandle.asType,
-                                                constHandle,
-                                                methodType)));
-                                    }, f1 -> {
-                                        f1.return_(f1.new_(CD_ConstantCallSite, f1.invokeVirtual(
-                                                MD_MethodHandle.asType,
-                                                ctorHandle,
-                                                methodType)));
-                                    });
+                            b0.return_(defineLambdaClass(b0, lookup, bytes));
+                        });
+                    });
+        }
+        return ofConstantBootstrap(type, "defineLambdaClass", CD_Class);
+    }
+
+    /**
+     * Build the bootstrap method which defines a lambda class whose bytes are stored in the lambda classes resource
+     * of the top-level type.
+     * The constant receives the resource contents (as a dynamic constant) along with the offset and length
+     * of the bytes of its lambda class.
+     *
+     * @return the bootstrap method handle (not {@code null})
+     * @see #addLambdaClassBytes(byte[])
+     */
+    private DirectMethodHandleDesc buildLambdaClassResourceBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_Class,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_Class,
+                CD_byte_array,
+                CD_int,
+                CD_int);
+        if (getAndSetBootstrap(Bootstrap.LAMBDA_RESOURCE)) {
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "defineLambdaClassFromResource",
+                    bootstrapType);
+            staticMethod(
+                    "defineLambdaClassFromResource",
+                    bootstrapType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        ParamVar lookup = smc.parameter("lookup", 0);
+                        smc.parameter("name", 1);
+                        smc.parameter("type", 2);
+                        ParamVar classes = smc.parameter("classes", 3);
+                        ParamVar offset = smc.parameter("offset", 4);
+                        ParamVar length = smc.parameter("length", 5);
+                        smc.body(b0 -> {
+                            var bytes = b0.localVar("bytes", b0.invokeStatic(
+                                    MD_Arrays.copyOfRange_byte,
+                                    classes,
+                                    offset,
+                                    b0.add(offset, length)));
+                            b0.return_(defineLambdaClass(b0, lookup, bytes));
+                        });
+                    });
+            MethodTypeDesc loadType = MethodTypeDesc.of(
+                    CD_byte_array,
+                    CD_MethodHandles_Lookup,
+                    CD_String,
+                    CD_Class);
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "loadLambdaClasses",
+                    loadType);
+            staticMethod(
+                    "loadLambdaClasses",
+                    loadType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        smc.parameter("lookup", 0);
+                        smc.parameter("name", 1);
+                        smc.parameter("type", 2);
+                        smc.body(b0 -> {
+                            ClassDesc topLevelType = topLevel().type();
+                            LocalVar is = b0.localVar("is", b0.invokeVirtual(
+                                    MD_Class.getResourceAsStream,
+                                    Const.of(topLevelType),
+                                    Const.of(topLevelType.displayName() + "$lambdas.bin")));
+                            b0.if_(b0.eq(is, Const.ofNull(CD_InputStream)), b1 -> {
+                                b1.throw_(NoSuchElementException.class);
+                            });
+                            b0.autoClose(is, b1 -> {
+                                b1.return_(b1.invokeVirtual(MD_InputStream.readAllBytes, is));
+                            });
                         });
                     });
         }
+        return ofConstantBootstrap(type, "defineLambdaClassFromResource", CD_Class, CD_byte_array, CD_int, CD_int);
+    }
+
+    /**
+     * {@return the dynamic constant which loads the lambda classes resource of the top-level type}
+     */
+    private DynamicConstantDesc<byte[]> lambdaClassesConstant() {
+        return DynamicConstantDesc.ofNamed(
+                ofConstantBootstrap(type, "loadLambdaClasses", CD_byte_array),
+                DEFAULT_NAME,
+                CD_byte_array);
+    }
+
+    /**
+     * Add the bytes of a lambda class to the lambda classes resource, which is shared by
+     * all the types nested within the top-level type.
+     * The resource is written when the top-level type is complete.
+     *
+     * @param bytes the class bytes (must not be {@code null})
+     * @return the offset of the class bytes within the resource
+     */
+    private int addLambdaClassBytes(final byte[] bytes) {
+        TypeCreatorImpl topLevel = topLevel();
+        ByteArrayOutputStream lambdaClasses = topLevel.lambdaClasses;
+        if (lambdaClasses == null) {
+            lambdaClasses = topLevel.lambdaClasses = new ByteArrayOutputStream(bytes.length * 4);
+        }
+        int offset = lambdaClasses.size();
+        lambdaClasses.writeBytes(bytes);
+        return offset;
+    }
+
+    /**
+     * Generate code which defines a lambda class as a hidden nestmate of this type.
+     *
+     * @param b0 the block to generate into (must not be {@code null})
+     * @param lookup the lookup of this type (must not be {@code null})
+     * @param bytes the bytes of the lambda class (must not be {@code null})
+     * @return the defined class (not {@code null})
+     */
+    private Expr defineLambdaClass(final BlockCreator b0, final Expr lookup, final Expr bytes) {
+        var definedLookup = b0.localVar("definedLookup", b0.invokeVirtual(
+                MD_MethodHandles.Lookup.defineHiddenClass,
+                lookup,
+                bytes,
+                Const.of(false),
+                b0.newArray(CD_MethodHandles_Lookup_ClassOption, Const.of(NESTMATE))));
+        return b0.invokeVirtual(MD_MethodHandles.Lookup.lookupClass, definedLookup);
     }
 
     @Override
@@ -711,123 +985,59 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         return var.genericType();
     }
 
-    void buildReadLineBoostrapHelper() {
-        if (getAndSetBootstrap(Bootstrap.READ_LINE)) {
-            staticMethod("$readUtfLine", mc -> {
-                mc.returning(CD_String);
-                ParamVar sb = mc.parameter("sb", CD_StringBuilder);
-                ParamVar is = mc.parameter("is", CD_InputStream);
+    void buildReadStringsBootstrapHelper() {
+        if (getAndSetBootstrap(Bootstrap.READ_STRINGS)) {
+            staticMethod("$readStrings", mc -> {
+                mc.returning(CD_String.arrayType());
+                ParamVar name = mc.parameter("name", CD_String);
                 mc.body(b0 -> {
-                    // first byte of the line
-                    LocalVar a = b0.localVar("a", b0.invokeVirtual(MD_InputStream.read, is));
-                    // EOF (expected)
-                    b0.if_(b0.eq(a, -1), BlockCreator::returnNull);
-                    b0.loop(b1 -> {
-                        // process characters
-                        b1.block(b2 -> {
-                            // check for newline
-                            b2.if_(b2.eq(a, '\n'), b3 -> {
-                                // end of string
-                                Expr toString = b3.withObject(sb).toString_();
-                                // this is safe because this statement does not use or leave anything on the stack
-                                b3.invokeVirtual(MD_StringBuilder.setLength, sb, Const.of(0));
-                                b3.return_(toString);
-                            });
-                            // parse code point
-                            b2.if_(b2.lt(a, 0x80), b3 -> {
-                                // one-byte sequence
-                                b3.invokeVirtual(MD_StringBuilder.append_char, sb, b3.cast(a, CD_char));
-                                b3.break_(b2);
-                            });
-                            // validate prefix
-                            b2.if_(b2.lt(a, 0xC0), b3 -> {
-                                // invalid first byte (unexpected)
-                                b3.throw_(CharConversionException.class);
-                            });
-                            // at least two bytes
-                            LocalVar b = b2.localVar("b", b2.invokeVirtual(MD_InputStream.read, is));
-                            // check for eof (unexpected)
-                            b2.if_(b2.eq(b, -1), b3 -> {
-                                // eof (unexpected)
-                                b3.throw_(EOFException.class);
-                            });
-                            // validate second byte
-                            b2.if_(b2.logicalOr(b2.lt(b, 0x80), b3 -> b3.yield(b3.ge(b, 0xC0))), b3 -> {
-                                // invalid (unexpected)
-                                b3.throw_(CharConversionException.class);
-                            });
-                            // test for two-byte sequence
-                            b2.if_(b2.lt(a, 0xE0), b3 -> {
-                                // two-byte sequence
-                                b3.invokeVirtual(MD_StringBuilder.appendCodePoint, sb,
-                                        b3.or(
-                                                b3.shl(b3.and(a, 0x1F), 6),
-                                                b3.and(b, 0x3F)));
-                                b3.break_(b2);
-                            });
-                            // at least three bytes
-                            LocalVar c = b2.localVar("c", b2.invokeVirtual(MD_InputStream.read, is));
-                            // check for eof (unexpected)
-                            b2.if_(b2.eq(c, -1), b3 -> {
-                                // eof (unexpected)
-                                b3.throw_(EOFException.class);
-                            });
-                            // validate third byte
-                            b2.if_(b2.logicalOr(b2.lt(c, 0x80), b3 -> b3.yield(b3.ge(c, 0xC0))), b3 -> {
-                                // invalid (unexpected)
-                                b3.throw_(CharConversionException.class);
-                            });
-                            // test for three-byte sequence
-                            b2.if_(b2.lt(a, 0xF0), b3 -> {
-                                // three-byte sequence
-                                b3.invokeVirtual(MD_StringBuilder.appendCodePoint, sb,
-                                        b3.or(
-                                                b3.or(
-                                                        b3.shl(b3.and(a, 0x0F), 12),
-                                                        b3.shl(b3.and(b, 0x3F), 6)),
-                                                b3.and(c, 0x3F)));
-                                b3.break_(b2);
-                            });
-                            // four bytes (or invalid)
-                            LocalVar d = b2.localVar("d", b2.invokeVirtual(MD_InputStream.read, is));
-                            // check for eof (unexpected)
-                            b2.if_(b2.eq(d, -1), b3 -> {
-                                // eof (unexpected)
-                                b3.throw_(EOFException.class);
-                            });
-                            // validate fourth byte
-                            b2.if_(b2.logicalOr(b2.lt(d, 0x80), b3 -> b3.yield(b3.ge(d, 0xC0))), b3 -> {
-                                // invalid (unexpected)
-                                b3.throw_(CharConversionException.class);
-                            });
-                            // test for four-byte sequence
-                            b2.if_(b2.lt(a, 0xF8), b3 -> {
-                                // four-byte sequence
-                                b3.invokeVirtual(MD_StringBuilder.appendCodePoint, sb,
-                                        b3.or(
-                                                b3.or(
-                                                        b3.shl(b3.and(a, 0x07), 18),
-                                                        b3.shl(b3.and(b, 0x3F), 12)),
-                                                b3.or(
-                                                        b3.shl(b3.and(c, 0x0F), 6),
-                                                        b3.and(d, 0x3F))));
-                                b3.break_(b2);
+                    // load resource
+                    LocalVar is = b0.localVar("is", b0.invokeVirtual(
+                            MD_Class.getResourceAsStream,
+                            Const.of(type),
+                            b0.withString(b0.withString(Const.of(type.displayName() + "$")).concat(name))
+                                    .concat(Const.of(".bin"))));
+                    b0.if_(b0.eq(is, Const.ofNull(CD_InputStream)), b1 -> {
+                        b1.throw_(NoSuchElementException.class);
+                    });
+                    b0.autoClose(is, b1 -> {
+                        // read the whole resource at once
+                        LocalVar bytes = b1.localVar("bytes", b1.invokeVirtual(MD_InputStream.readAllBytes, is));
+                        LocalVar buf = b1.localVar("buf", b1.invokeStatic(MD_ByteBuffer.wrap, bytes));
+                        // the header holds the number of strings
+                        LocalVar count = b1.localVar("count", b1.invokeVirtual(MD_ByteBuffer.getInt, buf));
+                        LocalVar strings = b1.localVar("strings", b1.newEmptyArray(CD_String, count));
+                        LocalVar utf8 = b1.localVar("utf8", b1.getStaticField(FD_StandardCharsets.UTF_8));
+                        LocalVar i = b1.localVar("i", Const.of(0));
+                        b1.while_(b2 -> b2.yield(b2.lt(i, count)), b2 -> {
+                            // each string is prefixed with its length in bytes, or with its negated length in chars
+                            LocalVar length = b2.localVar("length", b2.invokeVirtual(MD_ByteBuffer.getInt, buf));
+                            LocalVar pos = b2.localVar("pos", b2.invokeVirtual(MD_ByteBuffer.position, buf));
+                            b2.ifElse(b2.ge(length, 0), b3 -> {
+                                b3.set(strings.elem(i), b3.new_(CD_String, bytes, pos, length, utf8));
+                                b3.invokeVirtual(MD_ByteBuffer.position_int, buf, b3.add(pos, length));
+                            }, b3 -> {
+                                // UTF-16 chars, for strings with unpaired surrogates
+                                Expr chars = b3.invokeVirtual(MD_ByteBuffer.asCharBuffer, buf);
+                                Expr limited = b3.invokeVirtual(MD_CharBuffer.limit, chars, b3.neg(length));
+                                b3.set(strings.elem(i), b3.withObject(limited).toString_());
+                                b3.invokeVirtual(MD_ByteBuffer.position_int, buf, b3.sub(pos, b3.mul(length, 2)));
                             });
-                            // invalid sequence (unexpected)
-                            b2.throw_(CharConversionException.class);
-                        });
-                        b1.set(a, b1.invokeVirtual(MD_InputStream.read, is));
-                        b1.if_(b1.eq(a, -1), b2 -> {
-                            b2.throw_(EOFException.class);
+                            b2.inc(i);
                         });
+                        b1.return_(strings);
                     });
                 });
             });
         }
     }
 
+    private ClassMethodDesc readStringsMethod() {
+        return ClassMethodDesc.of(type, "$readStrings", MethodTypeDesc.of(CD_String.arrayType(), CD_String));
+    }
+
     void buildStringListConstantBootstrap() {
-        buildReadLineBoostrapHelper();
+        buildReadStringsBootstrapHelper();
         if (getAndSetBootstrap(Bootstrap.LIST_CONSTANT)) {
             MethodTypeDesc bootstrapType = MethodTypeDesc.of(
                     CD_List,
@@ -848,40 +1058,7 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
                     b0.if_(b0.ne(clazz, Const.of(CD_List)), b1 -> {
                         b1.throw_(ClassCastException.class);
                     });
-                    // load resource
-                    LocalVar is = b0.localVar("is", b0.invokeVirtual(
-                            MD_Class.getResourceAsStream,
-                            Const.of(type),
-                            b0.withString(b0.withString(Const.of(type.displayName() + "$")).concat(name))
-                                    .concat(Const.of(".txt"))));
-                    b0.if_(b0.eq(is, Const.ofNull(CD_InputStream)), b1 -> {
-                        b1.throw_(NoSuchElementException.class);
-                    });
-                    b0.autoClose(is, b1 -> {
-                        // decode the bytes
-                        LocalVar sb = b1.localVar("sb", b1.new_(CD_StringBuilder, Const.of(100)));
-                        LocalVar list = b1.localVar("list", b1.new_(CD_ArrayList, Const.of(60)));
-                        LocalVar line = b1.localVar("line", b1.invokeStatic(ClassMethodDesc.of(
-                                type,
-                                "$readUtfLine",
-                                MethodTypeDesc.of(
-                                        CD_String,
-                                        CD_StringBuilder,
-                                        CD_InputStream)),
-                                sb, is));
-                        b1.while_(b2 -> b2.yield(b2.isNotNull(line)), b2 -> {
-                            b2.withCollection(list).add(line);
-                            b2.set(line, b2.invokeStatic(ClassMethodDesc.of(
-                                    type,
-                                    "$readUtfLine",
-                                    MethodTypeDesc.of(
-                                            CD_String,
-                                            CD_StringBuilder,
-                                            CD_InputStream)),
-                                    sb, is));
-                        });
-                        b1.return_(b1.invokeStatic(MD_List.copyOf, list));
-                    });
+                    b0.return_(b0.invokeStatic(MD_List.of_array, b0.invokeStatic(readStringsMethod(), name)));
                 });
             });
         }
@@ -889,8 +1066,8 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
 
     public Const stringListResourceConstant(String name, List<String> items) {
         buildStringListConstantBootstrap();
-        byte[] array = encodeStrings(items.stream());
-        output.write("%s$%s.txt".formatted(Util.internalName(type), name), array);
+        byte[] array = encodeStrings(items.size(), items.stream());
+        output.write("%s$%s.bin".formatted(Util.internalName(type), name), array);
         DynamicConstantDesc<List<String>> stringListConstant = DynamicConstantDesc.ofNamed(
                 ofConstantBootstrap(
                         type,
@@ -902,7 +1079,7 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
     }
 
     void buildStringSetConstantBootstrap() {
-        buildReadLineBoostrapHelper();
+        buildReadStringsBootstrapHelper();
         if (getAndSetBootstrap(Bootstrap.SET_CONSTANT)) {
             MethodTypeDesc bootstrapType = MethodTypeDesc.of(
                     CD_Set,
@@ -923,40 +1100,7 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
                     b0.if_(b0.ne(clazz, Const.of(CD_Set)), b1 -> {
                         b1.throw_(ClassCastException.class);
                     });
-                    // load resource
-                    LocalVar is = b0.localVar("is", b0.invokeVirtual(
-                            MD_Class.getResourceAsStream,
-                            Const.of(type),
-                            b0.withString(b0.withString(Const.of(type.displayName() + "$")).concat(name))
-                                    .concat(Const.of(".txt"))));
-                    b0.if_(b0.eq(is, Const.ofNull(CD_InputStream)), b1 -> {
-                        b1.throw_(NoSuchElementException.class);
-                    });
-                    b0.autoClose(is, b1 -> {
-                        // decode the bytes
-                        LocalVar sb = b1.localVar("sb", b1.new_(CD_StringBuilder, Const.of(100)));
-                        LocalVar list = b1.localVar("list", b1.new_(CD_ArrayList, Const.of(60)));
-                        LocalVar line = b1.localVar("line", b1.invokeStatic(ClassMethodDesc.of(
-                                type,
-                                "$readUtfLine",
-                                MethodTypeDesc.of(
-                                        CD_String,
-                                        CD_StringBuilder,
-                                        CD_InputStream)),
-                                sb, is));
-                        b1.while_(b2 -> b2.yield(b2.isNotNull(line)), b2 -> {
-                            b2.withCollection(list).add(line);
-                            b2.set(line, b2.invokeStatic(ClassMethodDesc.of(
-                                    type,
-                                    "$readUtfLine",
-                                    MethodTypeDesc.of(
-                                            CD_String,
-                                            CD_StringBuilder,
-                                            CD_InputStream)),
-                                    sb, is));
-                        });
-                        b1.return_(b1.invokeStatic(MD_Set.copyOf, list));
-                    });
+                    b0.return_(b0.invokeStatic(MD_Set.of_array, b0.invokeStatic(readStringsMethod(), name)));
                 });
             });
         }
@@ -964,8 +1108,8 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
 
     public Const stringSetResourceConstant(String name, Set<String> items) {
         buildStringSetConstantBootstrap();
-        byte[] array = encodeStrings(items.stream());
-        output.write("%s$%s.txt".formatted(Util.internalName(type), name), array);
+        byte[] array = encodeStrings(items.size(), items.stream());
+        output.write("%s$%s.bin".formatted(Util.internalName(type), name), array);
         DynamicConstantDesc<Set<String>> stringSetConstant = DynamicConstantDesc.ofNamed(
                 ofConstantBootstrap(
                         type,
@@ -977,7 +1121,7 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
     }
 
     void buildStringMapConstantBootstrap() {
-        buildReadLineBoostrapHelper();
+        buildReadStringsBootstrapHelper();
         if (getAndSetBootstrap(Bootstrap.MAP_CONSTANT)) {
             MethodTypeDesc bootstrapType = MethodTypeDesc.of(
                     CD_Map,
@@ -998,52 +1142,17 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
                     b0.if_(b0.ne(clazz, Const.of(CD_Map)), b1 -> {
                         b1.throw_(ClassCastException.class);
                     });
-                    // load resource
-                    LocalVar is = b0.localVar("is", b0.invokeVirtual(
-                            MD_Class.getResourceAsStream,
-                            Const.of(type),
-                            b0.withString(b0.withString(Const.of(type.displayName() + "$")).concat(name))
-                                    .concat(Const.of(".txt"))));
-                    b0.if_(b0.eq(is, Const.ofNull(CD_InputStream)), b1 -> {
-                        b1.throw_(NoSuchElementException.class);
-                    });
-                    b0.autoClose(is, b1 -> {
-                        // decode the bytes
-                        LocalVar sb = b1.localVar("sb", b1.new_(CD_StringBuilder, Const.of(100)));
-                        LocalVar list = b1.localVar("list", b1.new_(CD_ArrayList, Const.of(60)));
-                        LocalVar key = b1.localVar("key", b1.invokeStatic(ClassMethodDesc.of(
-                                type,
-                                "$readUtfLine",
-                                MethodTypeDesc.of(CD_String, CD_StringBuilder, CD_InputStream)),
-                                sb, is));
-                        LocalVar value = b1.localVar("value", b1.invokeStatic(ClassMethodDesc.of(
-                                type,
-                                "$readUtfLine",
-                                MethodTypeDesc.of(CD_String, CD_StringBuilder, CD_InputStream)),
-                                sb, is));
-                        b1.while_(b2 -> b2.yield(b2.isNotNull(key)), b2 -> {
-                            b2.withCollection(list).add(b2.mapEntry(key, value));
-                            b2.set(key, b2.invokeStatic(ClassMethodDesc.of(
-                                    type,
-                                    "$readUtfLine",
-                                    MethodTypeDesc.of(CD_String, CD_StringBuilder, CD_InputStream)),
-                                    sb, is));
-                            b2.set(value, b2.invokeStatic(ClassMethodDesc.of(
-                                    type,
-                                    "$readUtfLine",
-                                    MethodTypeDesc.of(CD_String, CD_StringBuilder, CD_InputStream)),
-                                    sb, is));
-                        });
-                        Expr array = b1.newEmptyArray(CD_Map_Entry, b1.withList(list).size());
-                        array = b1.invokeVirtual(ClassMethodDesc.of(
-                                CD_ArrayList,
-                                "toArray",
-                                MethodTypeDesc.of(
-                                        CD_Object.arrayType(),
-                                        CD_Object.arrayType())),
-                                list, array);
-                        b1.return_(b1.invokeStatic(MD_Map.ofEntries, array));
+                    // keys and values alternate
+                    LocalVar strings = b0.localVar("strings", b0.invokeStatic(readStringsMethod(), name));
+                    LocalVar entries = b0.localVar("entries", b0.newEmptyArray(CD_Map_Entry,
+                            b0.shr(strings.length(), Const.of(1))));
+                    LocalVar i = b0.localVar("i", Const.of(0));
+                    b0.while_(b1 -> b1.yield(b1.lt(i, entries.length())), b1 -> {
+                        LocalVar j = b1.localVar("j", b1.shl(i, Const.of(1)));
+                        b1.set(entries.elem(i), b1.mapEntry(strings.elem(j), strings.elem(b1.add(j, Const.of(1)))));
+                        b1.inc(i);
                     });
+                    b0.return_(b0.invokeStatic(MD_Map.ofEntries, entries));
                 });
             });
         }
@@ -1051,8 +1160,9 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
 
     public Const stringMapResourceConstant(String name, Map<String, String> items) {
         buildStringMapConstantBootstrap();
-        byte[] array = encodeStrings(items.entrySet().stream().flatMap(e -> Stream.of(e.getKey(), e.getValue())));
-        output.write("%s$%s.txt".formatted(Util.internalName(type), name), array);
+        byte[] array = encodeStrings(items.size() * 2,
+                items.entrySet().stream().flatMap(e -> Stream.of(e.getKey(), e.getValue())));
+        output.write("%s$%s.bin".formatted(Util.internalName(type), name), array);
         DynamicConstantDesc<Map<String, String>> stringMapConstant = DynamicConstantDesc.ofNamed(
                 ofConstantBootstrap(
                         type,
@@ -1063,34 +1173,222 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         return Const.of(stringMapConstant);
     }
 
-    private byte[] encodeStrings(final Stream<String> stream) {
+    /**
+     * Build the bootstrap method which assembles collection constants which are too large to be
+     * created by a single {@link ConstantDescs#BSM_INVOKE} constant.
+     * The bootstrap receives the collection as a series of list constants, concatenates them,
+     * and produces an immutable list, set, or map (of the list elements, which must be map entries)
+     * according to the requested constant type.
+     *
+     * @return the bootstrap method handle (not {@code null})
+     */
+    DirectMethodHandleDesc buildCollectionConstantBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_Object,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_Class,
+                CD_Object_array);
+        if (getAndSetBootstrap(Bootstrap.COLLECTION_CONSTANT)) {
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "loadCollectionConstant",
+                    bootstrapType);
+            staticMethod(
+                    "loadCollectionConstant",
+                    bootstrapType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        smc.varargs();
+                        smc.parameter("lookup", 0);
+                        smc.parameter("name", 1);
+                        ParamVar clazz = smc.parameter("type", 2);
+                        ParamVar chunks = smc.parameter("chunks", 3);
+                        smc.body(b0 -> {
+                            LocalVar all = b0.localVar("all", b0.new_(CD_ArrayList));
+                            b0.forEach(chunks, (b1, chunk) -> {
+                                b1.withCollection(all).addAll(b1.cast(chunk, CD_List));
+                            });
+                            b0.if_(b0.eq(clazz, Const.of(CD_Set)), b1 -> {
+                                b1.return_(b1.invokeStatic(MD_Set.copyOf, all));
+                            });
+                            b0.if_(b0.eq(clazz, Const.of(CD_Map)), b1 -> {
+                                b1.return_(b1.invokeStatic(MD_Map.ofEntries, b1.cast(
+                                        b1.invokeInterface(MD_Collection.toArray, all, b1.newEmptyArray(CD_Map_Entry, 0)),
+                                        CD_Map_Entry_array)));
+                            });
+                            b0.return_(b0.invokeStatic(MD_List.copyOf, all));
+                        });
+                    });
+        }
+        return ofConstantBootstrap(type, "loadCollectionConstant", CD_Object, CD_Object_array);
+    }
+
+    /**
+     * Build the bootstrap method which decodes primitive array constants.
+     * The bootstrap receives the array data as a series of strings whose characters are all in the
+     * range {@code 0..255}, each character being one byte of the encoded data.
+     * Byte arrays are stored as they are; the elements of other arrays are stored as
+     * variable-length, zig-zag encoded values, seven bits per byte, least significant bits first.
+     *
+     * @return the bootstrap method handle (not {@code null})
+     */
+    DirectMethodHandleDesc buildArrayConstantBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_Object,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_Class,
+                CD_String.arrayType());
+        if (getAndSetBootstrap(Bootstrap.ARRAY_CONSTANT)) {
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "loadArrayConstant",
+                    bootstrapType);
+            staticMethod(
+                    "loadArrayConstant",
+                    bootstrapType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        smc.varargs();
+                        smc.parameter("lookup", 0);
+                        smc.parameter("name", 1);
+                        ParamVar clazz = smc.parameter("type", 2);
+                        ParamVar data = smc.parameter("data", 3);
+                        smc.body(b0 -> {
+                            LocalVar bytes = b0.localVar("bytes", b0.invokeVirtual(
+                                    MD_String.getBytes_Charset,
+                                    b0.invokeStatic(MD_String.join, Const.of(""), data),
+                                    b0.getStaticField(FD_StandardCharsets.ISO_8859_1)));
+                            b0.if_(b0.eq(clazz, Const.of(CD_byte_array)), b1 -> {
+                                b1.return_(bytes);
+                            });
+                            // each value ends with a byte which does not have the continuation bit set
+                            LocalVar count = b0.localVar("count", Const.of(0));
+                            b0.forEach(bytes, (b1, b) -> {
+                                b1.if_(b1.ge(b, 0), b2 -> b2.inc(count));
+                            });
+                            LocalVar values = b0.localVar("values", b0.newEmptyArray(CD_long, count));
+                            LocalVar idx = b0.localVar("idx", Const.of(0));
+                            LocalVar value = b0.localVar("value", Const.of(0L));
+                            LocalVar shift = b0.localVar("shift", Const.of(0));
+                            b0.forEach(bytes, (b1, b) -> {
+                                b1.set(value, b1.or(value, b1.shl(b1.cast(b1.and(b, Const.of(0x7F)), CD_long), shift)));
+                                b1.ifElse(b1.ge(b, 0), b2 -> {
+                                    // undo the zig-zag encoding
+                                    b2.set(values.elem(idx), b2.xor(
+                                            b2.ushr(value, Const.of(1)),
+                                            b2.neg(b2.and(value, Const.of(1L)))));
+                                    b2.inc(idx);
+                                    b2.set(value, Const.of(0L));
+                                    b2.set(shift, Const.of(0));
+                                }, b2 -> {
+                                    b2.inc(shift, 7);
+                                });
+                            });
+                            b0.if_(b0.eq(clazz, Const.of(CD_long_array)), b1 -> {
+                                b1.return_(values);
+                            });
+                            for (ClassDesc componentType : List.of(CD_int, CD_short, CD_char)) {
+                                b0.if_(b0.eq(clazz, Const.of(componentType.arrayType())), b1 -> {
+                                    LocalVar result = b1.localVar("result", b1.newEmptyArray(componentType, count));
+                                    LocalVar i = b1.localVar("i", Const.of(0));
+                                    b1.while_(b2 -> b2.yield(b2.lt(i, count)), b2 -> {
+                                        b2.set(result.elem(i), b2.cast(values.elem(i), componentType));
+                                        b2.inc(i);
+                                    });
+                                    b1.return_(result);
+                                });
+                            }
+                            b0.throw_(ClassCastException.class);
+                        });
+                    });
+        }
+        return ofConstantBootstrap(type, "loadArrayConstant", CD_Object, CD_String.arrayType());
+    }
+
+    /**
+     * Build the bootstrap method which creates the ordinal map of an {@code enum} switch.
+     * The bootstrap receives the {@code enum} type and the names of the case constants,
+     * and produces an array which maps the ordinal of each constant of the {@code enum} type,
+     * as it is at run time, to one plus the index of its name, or to zero if it has no case.
+     * Constants are matched by name, so that the switch remains correct if the {@code enum}
+     * is changed and compiled separately.
+     *
+     * @return the bootstrap method handle (not {@code null})
+     */
+    DirectMethodHandleDesc buildEnumSwitchBootstrap() {
+        MethodTypeDesc bootstrapType = MethodTypeDesc.of(
+                CD_int_array,
+                CD_MethodHandles_Lookup,
+                CD_String,
+                CD_Class,
+                CD_Class,
+                CD_String.arrayType());
+        if (getAndSetBootstrap(Bootstrap.ENUM_SWITCH)) {
+            gizmo.outputHandler().registerBootstrapMethod(
+                    type,
+                    "enumSwitchMap",
+                    bootstrapType);
+            staticMethod(
+                    "enumSwitchMap",
+                    bootstrapType,
+                    smc -> {
+                        smc.setAccess(AccessLevel.PRIVATE);
+                        smc.varargs();
+                        smc.parameter("lookup", 0);
+                        smc.parameter("name", 1);
+                        smc.parameter("type", 2);
+                        ParamVar enumClass = smc.parameter("enumClass", 3);
+                        ParamVar names = smc.parameter("names", 4);
+                        smc.body(b0 -> {
+                            LocalVar constants = b0.localVar("constants", b0.cast(
+                                    b0.invokeVirtual(MD_Class.getEnumConstants, enumClass),
+                                    CD_Enum.arrayType()));
+                            LocalVar map = b0.localVar("map", b0.newEmptyArray(CD_int, constants.length()));
+                            b0.forEach(constants, (b1, constant) -> {
+                                LocalVar constantName = b1.localVar("constantName",
+                                        b1.invokeVirtual(MD_Enum.name, constant));
+                                LocalVar i = b1.localVar("i", Const.of(0));
+                                b1.while_(b2 -> b2.yield(b2.lt(i, names.length())), b2 -> {
+                                    b2.if_(b2.objEquals(constantName, names.elem(i)), b3 -> {
+                                        b3.set(map.elem(b3.invokeVirtual(MD_Enum.ordinal, constant)), b3.add(i, 1));
+                                    });
+                                    b2.inc(i);
+                                });
+                            });
+                            b0.return_(map);
+                        });
+                    });
+        }
+        return ofConstantBootstrap(type, "enumSwitchMap", CD_int_array, CD_Class, CD_String.arrayType());
+    }
+
+    /**
+     * Encode strings for a resource constant.
+     * The resource starts with the number of strings, followed by each string as its length in bytes
+     * and its UTF-8 bytes; all numbers are 4-byte big-endian integers.
+     *
+     * @param count the number of strings
+     * @param stream the strings (must not be {@code null})
+     * @return the encoded bytes (not {@code null})
+     */
+    private byte[] encodeStrings(final int count, final Stream<String> stream) {
         try (ByteArrayOutputStream os = new ByteArrayOutputStream(8192)) {
-            stream.forEachOrdered(s -> {
-                int cp;
-                for (int i = 0; i < s.length(); i += Character.charCount(cp)) {
-                    cp = s.codePointAt(i);
-                    // always use 2-byte encoding for \n so we can embed strings with newlines
-                    // (but it still looks OK in editors)
-                    if (cp <= 0x7f && cp != '\n') {
-                        os.write(cp);
-                    } else if (cp <= 0x7ff) {
-                        os.write(0b110_00000 | cp >> 6);
-                        os.write(0b10_000000 | cp & 0x3f);
-                    } else if (cp <= 0xffff) {
-                        os.write(0b1110_0000 | cp >> 12);
-                        os.write(0b10_000000 | cp >> 6 & 0x3f);
-                        os.write(0b10_000000 | cp & 0x3f);
-                    } else if (cp <= 0x10ffff) {
-                        os.write(0b11110_000 | cp >> 18);
-                        os.write(0b10_000000 | cp >> 12 & 0x3f);
-                        os.write(0b10_000000 | cp >> 6 & 0x3f);
-                        os.write(0b10_000000 | cp & 0x3f);
-                    } else {
-                        throw new IllegalStateException("Unexpected invalid code point");
-                    }
+            DataOutputStream dos = new DataOutputStream(os);
+            dos.writeInt(count);
+            for (String s : (Iterable<String>) stream::iterator) {
+                if (isWellFormed(s)) {
+                    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                    dos.writeInt(bytes.length);
+                    dos.write(bytes);
+                } else {
+                    // UTF-8 cannot represent unpaired surrogates
+                    dos.writeInt(-s.length());
+                    dos.writeChars(s);
                 }
-                os.write('\n');
-            });
+            }
+            dos.flush();
             return os.toByteArray();
         } catch (IOException e) {
             // impossible?
@@ -1098,12 +1396,34 @@ public abstract sealed class TypeCreatorImpl extends ModifiableCreatorImpl imple
         }
     }
 
+    /**
+     * {@return {@code true} if the given string has no unpaired surrogates, or {@code false} if it has}
+     *
+     * @param s the string (must not be {@code null})
+     */
+    private static boolean isWellFormed(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private enum Bootstrap {
         LAMBDA,
-        READ_LINE,
+        LAMBDA_CLASS,
+        LAMBDA_RESOURCE,
+        READ_STRINGS,
         LIST_CONSTANT,
         SET_CONSTANT,
         MAP_CONSTANT,
+        COLLECTION_CONSTANT,
+        ARRAY_CONSTANT,
+        ENUM_SWITCH,
         ;
     }
 }
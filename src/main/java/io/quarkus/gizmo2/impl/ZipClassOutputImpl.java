@@ -0,0 +1,302 @@
+package io.quarkus.gizmo2.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.quarkus.gizmo2.AsyncClassOutput;
+import io.smallrye.common.resource.ResourceUtils;
+
+/**
+ * A class output which streams every resource into a ZIP (or JAR) file.
+ * <p>
+ * Entries are compressed concurrently on an executor, but written to the file one at a time, in the order in which
+ * they were given. The central directory is written when the output is closed.
+ * All entries use a fixed timestamp, so that the same input always yields the same archive.
+ */
+public final class ZipClassOutputImpl implements AsyncClassOutput {
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_SIG = 0x06054b50;
+    private static final int ZIP64_END_SIG = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+    /**
+     * Entry names are always UTF-8.
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    /**
+     * 1980-01-01 00:00:00, the earliest DOS date.
+     */
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1;
+    private static final long MAX_32 = 0xFFFF_FFFFL;
+    private static final int MAX_16 = 0xFFFF;
+
+    private final Executor executor;
+    private final Semaphore permits;
+    private final HashSet<String> names = new HashSet<>();
+    /**
+     * The entries in the order written (only accessed by the writing task, or after it completes).
+     */
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private final OutputStream os;
+    private final ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * The number of bytes written so far (only accessed by the writing task, or after it completes).
+     */
+    private long offset;
+    /**
+     * The completion of the most recently submitted entry (guarded by {@code this}).
+     */
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    private boolean closed;
+
+    public ZipClassOutputImpl(final Path zipFile, final Executor executor, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.executor = executor;
+        permits = new Semaphore(capacity);
+        try {
+            os = new BufferedOutputStream(Files.newOutputStream(zipFile), 1 << 16);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to create archive %s".formatted(zipFile), e);
+        }
+    }
+
+    public void write(final String path, final byte[] bytes) {
+        String name = ResourceUtils.canonicalizeRelativePath(path);
+        permits.acquireUninterruptibly();
+        boolean ok = false;
+        try {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Output is closed");
+                }
+                checkFailure();
+                if (!names.add(name)) {
+                    throw new IllegalArgumentException("Duplicate archive entry %s".formatted(name));
+                }
+                CompletableFuture<Entry> compressed = CompletableFuture.supplyAsync(() -> compress(name, bytes), executor);
+                tail = tail.thenCombine(compressed, (ignored, entry) -> {
+                    writeEntry(entry);
+                    return (Void) null;
+                }).whenComplete((ignored, t) -> permits.release());
+                ok = true;
+            }
+        } finally {
+            if (!ok) {
+                permits.release();
+            }
+        }
+    }
+
+    public void flush() {
+        synchronized (this) {
+            awaitTail();
+            try {
+                os.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write output", e);
+            }
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (OutputStream os = this.os) {
+                awaitTail();
+                writeCentralDirectory();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write output", e);
+            }
+        }
+    }
+
+    private void checkFailure() {
+        if (tail.isCompletedExceptionally()) {
+            awaitTail();
+        }
+    }
+
+    private void awaitTail() {
+        try {
+            tail.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to write output", e.getCause());
+        }
+    }
+
+    private static Entry compress(final String name, final byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buf = new byte[Math.max(64, bytes.length >> 1)];
+            int len = 0;
+            while (!deflater.finished()) {
+                if (len == buf.length) {
+                    if (len >= bytes.length) {
+                        // not worth it
+                        break;
+                    }
+                    buf = Arrays.copyOf(buf, buf.length << 1);
+                }
+                len += deflater.deflate(buf, len, buf.length - len);
+            }
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (deflater.finished() && len < bytes.length) {
+                return new Entry(nameBytes, METHOD_DEFLATED, (int) crc.getValue(), buf, len, bytes.length);
+            } else {
+                return new Entry(nameBytes, METHOD_STORED, (int) crc.getValue(), bytes, bytes.length, bytes.length);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeEntry(final Entry entry) {
+        entry.offset = offset;
+        ByteBuffer header = this.header.clear();
+        header.putInt(LOCAL_HEADER_SIG);
+        header.putShort((short) VERSION);
+        header.putShort((short) FLAG_UTF8);
+        header.putShort((short) entry.method);
+        header.putShort((short) DOS_TIME);
+        header.putShort((short) DOS_DATE);
+        header.putInt(entry.crc);
+        header.putInt(entry.length);
+        header.putInt(entry.size);
+        header.putShort((short) entry.name.length);
+        header.putShort((short) 0);
+        try {
+            os.write(header.array(), 0, header.position());
+            os.write(entry.name);
+            os.write(entry.data, 0, entry.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        offset += header.position() + entry.name.length + entry.length;
+        entries.add(entry);
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long start = offset;
+        for (Entry entry : entries) {
+            boolean zip64 = entry.offset >= MAX_32;
+            ByteBuffer header = this.header.clear();
+            header.putInt(CENTRAL_HEADER_SIG);
+            header.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION));
+            header.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION));
+            header.putShort((short) FLAG_UTF8);
+            header.putShort((short) entry.method);
+            header.putShort((short) DOS_TIME);
+            header.putShort((short) DOS_DATE);
+            header.putInt(entry.crc);
+            header.putInt(entry.length);
+            header.putInt(entry.size);
+            header.putShort((short) entry.name.length);
+            header.putShort((short) (zip64 ? 12 : 0));
+            // comment length, disk number, internal & external attributes
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putShort((short) 0);
+            header.putInt(0);
+            header.putInt((int) (zip64 ? MAX_32 : entry.offset));
+            os.write(header.array(), 0, header.position());
+            os.write(entry.name);
+            offset += header.position() + entry.name.length;
+            if (zip64) {
+                header.clear();
+                header.putShort((short) 0x0001);
+                header.putShort((short) 8);
+                header.putLong(entry.offset);
+                os.write(header.array(), 0, header.position());
+                offset += header.position();
+            }
+        }
+        long size = offset - start;
+        int count = entries.size();
+        if (count >= MAX_16 || size >= MAX_32 || start >= MAX_32) {
+            long end64 = offset;
+            ByteBuffer header = this.header.clear();
+            header.putInt(ZIP64_END_SIG);
+            header.putLong(44);
+            header.putShort((short) VERSION_ZIP64);
+            header.putShort((short) VERSION_ZIP64);
+            header.putInt(0);
+            header.putInt(0);
+            header.putLong(count);
+            header.putLong(count);
+            header.putLong(size);
+            header.putLong(start);
+            os.write(header.array(), 0, header.position());
+            header.clear();
+            header.putInt(ZIP64_LOCATOR_SIG);
+            header.putInt(0);
+            header.putLong(end64);
+            header.putInt(1);
+            os.write(header.array(), 0, header.position());
+        }
+        ByteBuffer header = this.header.clear();
+        header.putInt(END_SIG);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) Math.min(count, MAX_16));
+        header.putShort((short) Math.min(count, MAX_16));
+        header.putInt((int) Math.min(size, MAX_32));
+        header.putInt((int) Math.min(start, MAX_32));
+        header.putShort((short) 0);
+        os.write(header.array(), 0, header.position());
+    }
+
+    static final class Entry {
+        final byte[] name;
+        final int method;
+        final int crc;
+        final byte[] data;
+        /**
+         * The length of the (possibly compressed) data.
+         */
+        final int length;
+        /**
+         * The uncompressed size.
+         */
+        final int size;
+        long offset;
+
+        Entry(final byte[] name, final int method, final int crc, final byte[] data, final int length, final int size) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.data = data;
+            this.length = length;
+            this.size = size;
+        }
+    }
+}
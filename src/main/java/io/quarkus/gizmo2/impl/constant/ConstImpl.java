@@ -295,6 +295,35 @@ public abstract non-sealed class ConstImpl extends Item implements Const {
         return new InvokeConst((MethodHandleConst) handle, Util.reinterpretCast(args));
     }
 
+    public static LargeCollectionConst ofLargeCollection(ClassDesc type, List<Const> chunks) {
+        return new LargeCollectionConst(type, Util.reinterpretCast(chunks));
+    }
+
+    public static PrimitiveArrayConst ofArray(byte[] values) {
+        checkNotNullParam("values", values);
+        return PrimitiveArrayConst.of(values);
+    }
+
+    public static PrimitiveArrayConst ofArray(char[] values) {
+        checkNotNullParam("values", values);
+        return PrimitiveArrayConst.of(values);
+    }
+
+    public static PrimitiveArrayConst ofArray(short[] values) {
+        checkNotNullParam("values", values);
+        return PrimitiveArrayConst.of(values);
+    }
+
+    public static PrimitiveArrayConst ofArray(int[] values) {
+        checkNotNullParam("values", values);
+        return PrimitiveArrayConst.of(values);
+    }
+
+    public static PrimitiveArrayConst ofArray(long[] values) {
+        checkNotNullParam("values", values);
+        return PrimitiveArrayConst.of(values);
+    }
+
     public static MethodHandleConst of(MethodHandleDesc desc) {
         return new MethodHandleConst(desc, null);
     }
@@ -0,0 +1,112 @@
+package io.quarkus.gizmo2.impl.constant;
+
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDesc;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import io.quarkus.gizmo2.impl.BlockCreatorImpl;
+import io.quarkus.gizmo2.impl.SourceBuilder;
+import io.quarkus.gizmo2.impl.SourceGenerator;
+import io.quarkus.gizmo2.impl.StackMapBuilder;
+import io.smallrye.classfile.CodeBuilder;
+
+/**
+ * A list, set, or map constant which has too many elements to be created by a single
+ * {@link java.lang.constant.ConstantDescs#BSM_INVOKE} constant.
+ * The elements are split into list constants of at most {@value #MAX_CHUNK_SIZE} elements each,
+ * which are combined by a bootstrap method that is generated into the class which uses the constant.
+ * Because the bootstrap method belongs to the using class, this constant has no
+ * {@linkplain #desc() nominal description}.
+ */
+public final class LargeCollectionConst extends ConstImpl {
+    /**
+     * The maximum number of elements in each chunk.
+     */
+    public static final int MAX_CHUNK_SIZE = 254;
+    /**
+     * The maximum number of static arguments given to the combining bootstrap method,
+     * which must stay below the method handle arity limit together with the three leading arguments.
+     */
+    private static final int MAX_BOOTSTRAP_ARGS = 250;
+
+    private final List<ConstImpl> chunks;
+
+    LargeCollectionConst(final ClassDesc type, final List<ConstImpl> chunks) {
+        super(type);
+        this.chunks = chunks;
+    }
+
+    /**
+     * {@return the list constants whose concatenated elements make up this constant}
+     */
+    public List<ConstImpl> chunks() {
+        return chunks;
+    }
+
+    public boolean equals(final ConstImpl obj) {
+        return obj instanceof LargeCollectionConst other && equals(other);
+    }
+
+    public boolean equals(final LargeCollectionConst other) {
+        return this == other || other != null && type().equals(other.type()) && chunks.equals(other.chunks);
+    }
+
+    public int hashCode() {
+        return type().hashCode() * 19 + chunks.hashCode();
+    }
+
+    public ConstantDesc desc() {
+        throw new IllegalArgumentException("No constant description for large collection constant");
+    }
+
+    public Optional<? extends ConstantDesc> describeConstable() {
+        return Optional.empty();
+    }
+
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        DirectMethodHandleDesc bootstrap = block.collectionConstantBootstrap();
+        List<ConstantDesc> args = new ArrayList<>(chunks.size());
+        for (ConstImpl chunk : chunks) {
+            args.add(chunk.desc());
+        }
+        // combine into intermediate lists until the remaining arguments fit into one bootstrap call
+        while (args.size() > MAX_BOOTSTRAP_ARGS) {
+            List<ConstantDesc> combined = new ArrayList<>(args.size() / MAX_BOOTSTRAP_ARGS + 1);
+            for (int i = 0; i < args.size(); i += MAX_BOOTSTRAP_ARGS) {
+                List<ConstantDesc> group = args.subList(i, Math.min(i + MAX_BOOTSTRAP_ARGS, args.size()));
+                combined.add(DynamicConstantDesc.ofNamed(bootstrap, DEFAULT_NAME, CD_List,
+                        group.toArray(ConstantDesc[]::new)));
+            }
+            args = combined;
+        }
+        cb.ldc(DynamicConstantDesc.ofNamed(bootstrap, DEFAULT_NAME, type(), args.toArray(ConstantDesc[]::new)));
+        smb.push(type());
+        smb.wroteCode();
+    }
+
+    public StringBuilder toShortString(final StringBuilder b) {
+        b.append("Collection:").append(type().displayName()).append('(');
+        Iterator<ConstImpl> iterator = chunks.iterator();
+        if (iterator.hasNext()) {
+            iterator.next().toShortString(b);
+            while (iterator.hasNext()) {
+                b.append('+');
+                iterator.next().toShortString(b);
+            }
+        }
+        return b.append(')');
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected StringBuilder appendSourceExpr(StringBuilder buf, SourceBuilder sb) {
+        return SourceGenerator.exprLargeCollectionConst(this, buf, sb);
+    }
+}
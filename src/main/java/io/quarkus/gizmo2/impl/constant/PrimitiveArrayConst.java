@@ -0,0 +1,158 @@
+package io.quarkus.gizmo2.impl.constant;
+
+import static io.quarkus.gizmo2.desc.Descs.*;
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.quarkus.gizmo2.impl.BlockCreatorImpl;
+import io.quarkus.gizmo2.impl.SourceBuilder;
+import io.quarkus.gizmo2.impl.SourceGenerator;
+import io.quarkus.gizmo2.impl.StackMapBuilder;
+import io.smallrye.classfile.CodeBuilder;
+
+/**
+ * A primitive array constant.
+ * The array contents are encoded into strings whose characters are each one byte of data,
+ * which are decoded by a bootstrap method that is generated into the class which uses the constant.
+ * Because the bootstrap method belongs to the using class, this constant has no
+ * {@linkplain #desc() nominal description}.
+ */
+public final class PrimitiveArrayConst extends ConstImpl {
+    /**
+     * The maximum number of characters in each encoded string, such that each string fits in a constant pool entry
+     * even if every character takes two bytes in modified UTF-8.
+     */
+    private static final int MAX_CHUNK_LENGTH = 0x7fff;
+    /**
+     * The maximum number of encoded strings, which must stay below the method handle arity limit
+     * together with the three leading bootstrap arguments.
+     */
+    private static final int MAX_CHUNKS = 250;
+
+    private final Object values;
+    private final List<String> chunks;
+
+    private PrimitiveArrayConst(final ClassDesc type, final Object values, final StringBuilder encoded) {
+        super(type);
+        this.values = values;
+        int length = encoded.length();
+        if (length > MAX_CHUNK_LENGTH * MAX_CHUNKS) {
+            throw new IllegalArgumentException("Array is too big (%d elements)".formatted(Integer.valueOf(length())));
+        }
+        List<String> chunks = new ArrayList<>(length / MAX_CHUNK_LENGTH + 1);
+        for (int i = 0; i < length; i += MAX_CHUNK_LENGTH) {
+            chunks.add(encoded.substring(i, Math.min(i + MAX_CHUNK_LENGTH, length)));
+        }
+        this.chunks = List.copyOf(chunks);
+    }
+
+    static PrimitiveArrayConst of(final byte[] values) {
+        StringBuilder b = new StringBuilder(values.length);
+        for (byte value : values) {
+            b.append((char) (value & 0xff));
+        }
+        return new PrimitiveArrayConst(CD_byte_array, values.clone(), b);
+    }
+
+    static PrimitiveArrayConst of(final char[] values) {
+        StringBuilder b = new StringBuilder(values.length);
+        for (char value : values) {
+            encode(b, value);
+        }
+        return new PrimitiveArrayConst(CD_char_array, values.clone(), b);
+    }
+
+    static PrimitiveArrayConst of(final short[] values) {
+        StringBuilder b = new StringBuilder(values.length);
+        for (short value : values) {
+            encode(b, value);
+        }
+        return new PrimitiveArrayConst(CD_short_array, values.clone(), b);
+    }
+
+    static PrimitiveArrayConst of(final int[] values) {
+        StringBuilder b = new StringBuilder(values.length);
+        for (int value : values) {
+            encode(b, value);
+        }
+        return new PrimitiveArrayConst(CD_int_array, values.clone(), b);
+    }
+
+    static PrimitiveArrayConst of(final long[] values) {
+        StringBuilder b = new StringBuilder(values.length);
+        for (long value : values) {
+            encode(b, value);
+        }
+        return new PrimitiveArrayConst(CD_long_array, values.clone(), b);
+    }
+
+    private static void encode(final StringBuilder b, final long value) {
+        // zig-zag encoding keeps small negative values short
+        long bits = value << 1 ^ value >> 63;
+        while ((bits & ~0x7fL) != 0) {
+            b.append((char) (bits & 0x7f | 0x80));
+            bits >>>= 7;
+        }
+        b.append((char) bits);
+    }
+
+    /**
+     * {@return the number of elements in the array}
+     */
+    public int length() {
+        return Array.getLength(values);
+    }
+
+    /**
+     * {@return the array element at the given index, boxed}
+     *
+     * @param index the element index
+     */
+    public Object get(final int index) {
+        return Array.get(values, index);
+    }
+
+    public boolean equals(final ConstImpl obj) {
+        return obj instanceof PrimitiveArrayConst other && equals(other);
+    }
+
+    public boolean equals(final PrimitiveArrayConst other) {
+        return this == other || other != null && type().equals(other.type()) && chunks.equals(other.chunks);
+    }
+
+    public int hashCode() {
+        return type().hashCode() * 19 + chunks.hashCode();
+    }
+
+    public ConstantDesc desc() {
+        throw new IllegalArgumentException("No constant description for primitive array constant");
+    }
+
+    public Optional<? extends ConstantDesc> describeConstable() {
+        return Optional.empty();
+    }
+
+    public void writeCode(final CodeBuilder cb, final BlockCreatorImpl block, final StackMapBuilder smb) {
+        cb.ldc(DynamicConstantDesc.ofNamed(block.arrayConstantBootstrap(), DEFAULT_NAME, type(),
+                chunks.toArray(ConstantDesc[]::new)));
+        smb.push(type());
+        smb.wroteCode();
+    }
+
+    public StringBuilder toShortString(final StringBuilder b) {
+        return b.append(type().componentType().displayName()).append('[').append(length()).append(']');
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected StringBuilder appendSourceExpr(StringBuilder buf, SourceBuilder sb) {
+        return SourceGenerator.exprPrimitiveArrayConst(this, buf, sb);
+    }
+}
@@ -8,6 +8,8 @@ module io.quarkus.gizmo2 {
 
     // for accessing serializable lambdas via ReflectionFactory
     requires jdk.unsupported;
+    // for flight recorder events
+    requires jdk.jfr;
 
     exports io.quarkus.gizmo2;
     exports io.quarkus.gizmo2.creator;
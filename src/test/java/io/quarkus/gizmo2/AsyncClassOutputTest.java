@@ -0,0 +1,102 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.constant.ClassDesc;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class AsyncClassOutputTest {
+
+    @Test
+    public void testAsyncFileWriter(@TempDir Path dir) throws IOException {
+        try (AsyncClassOutput output = ClassOutput.asyncFileWriter(dir, 3, 4)) {
+            Gizmo g = Gizmo.create(output);
+            for (int i = 0; i < 20; i++) {
+                g.class_(ClassDesc.of("io.quarkus.gizmo2.async.pkg" + i % 3 + ".Async" + i), cc -> {
+                });
+            }
+            output.write("META-INF/resource.txt", "hello".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            for (int i = 0; i < 20; i++) {
+                Path file = dir.resolve("io/quarkus/gizmo2/async/pkg" + i % 3 + "/Async" + i + ".class");
+                assertTrue(Files.isRegularFile(file), file.toString());
+            }
+            assertEquals("hello", Files.readString(dir.resolve("META-INF/resource.txt")));
+        }
+        // no temporary files are left behind
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void testAsyncPreservesOrder() {
+        List<String> paths = new ArrayList<>();
+        AsyncClassOutput output = ((ClassOutput) (path, bytes) -> paths.add(path)).async(2);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String path = "file" + i;
+            expected.add(path);
+            output.write(path, new byte[0]);
+        }
+        output.close();
+        assertEquals(expected, paths);
+        assertThrows(IllegalStateException.class, () -> output.write("late", new byte[0]));
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        AsyncClassOutput output = ((ClassOutput) (path, bytes) -> {
+            throw new IllegalArgumentException(path);
+        }).async(16);
+        output.write("broken", new byte[0]);
+        IllegalStateException e = assertThrows(IllegalStateException.class, output::flush);
+        assertEquals("broken", e.getCause().getMessage());
+        assertThrows(IllegalStateException.class, () -> output.write("next", new byte[0]));
+        assertThrows(IllegalStateException.class, output::close);
+    }
+
+    @Test
+    public void testZipWriter(@TempDir Path dir) throws IOException {
+        Path jar = dir.resolve("out.jar");
+        byte[] random = new byte[10_000];
+        new Random(1234).nextBytes(random);
+        List<String> expected = new ArrayList<>();
+        try (AsyncClassOutput output = ClassOutput.zipWriter(jar)) {
+            Gizmo g = Gizmo.create(output);
+            for (int i = 0; i < 30; i++) {
+                g.class_(ClassDesc.of("io.quarkus.gizmo2.zip.Zipped" + i), cc -> {
+                });
+                expected.add("io/quarkus/gizmo2/zip/Zipped" + i + ".class");
+            }
+            output.write("META-INF/text.txt", "hello hello hello hello hello".getBytes(StandardCharsets.UTF_8));
+            expected.add("META-INF/text.txt");
+            // incompressible, so it is stored
+            output.write("random.bin", random);
+            expected.add("random.bin");
+            assertThrows(IllegalArgumentException.class, () -> output.write("random.bin", random));
+        }
+        try (ZipFile zf = new ZipFile(jar.toFile())) {
+            assertEquals(expected, zf.stream().map(ZipEntry::getName).toList());
+            assertEquals("hello hello hello hello hello",
+                    new String(zf.getInputStream(zf.getEntry("META-INF/text.txt")).readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(ZipEntry.STORED, zf.getEntry("random.bin").getMethod());
+            assertArrayEquals(random, zf.getInputStream(zf.getEntry("random.bin")).readAllBytes());
+            byte[] classBytes = zf.getInputStream(zf.getEntry("io/quarkus/gizmo2/zip/Zipped0.class")).readAllBytes();
+            assertEquals(0xCAFEBABE, ByteBuffer.wrap(classBytes).getInt());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.creator.ClassCreator;
+import io.quarkus.gizmo2.creator.InterfaceCreator;
+import io.quarkus.gizmo2.desc.MethodDesc;
+import io.quarkus.gizmo2.testing.TestClassMaker;
+
+public final class BatchGenerationTest {
+
+    private static Map<ClassDesc, Consumer<ClassCreator>> builders(String prefix, int count) {
+        Map<ClassDesc, Consumer<ClassCreator>> builders = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int idx = i;
+            builders.put(ClassDesc.of(prefix + i), cc -> {
+                cc.staticMethod("get", mc -> {
+                    mc.returning(int.class);
+                    mc.body(b0 -> {
+                        // a lambda, so that an extra class or resource is written too
+                        Expr supplier = b0.lambda(Supplier.class, lc -> lc.body(b1 -> b1.return_(Const.of("x"))));
+                        b0.invokeInterface(MethodDesc.of(Supplier.class, "get", Object.class), supplier);
+                        b0.return_(Const.of(idx));
+                    });
+                });
+            });
+        }
+        return builders;
+    }
+
+    @Test
+    public void testClassesAreLoadable() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<ClassDesc> descs = g.classes(builders("io.quarkus.gizmo2.Batch", 50), executor);
+            assertEquals(50, descs.size());
+            for (int i = 0; i < descs.size(); i++) {
+                assertEquals(ClassDesc.of("io.quarkus.gizmo2.Batch" + i), descs.get(i));
+                assertEquals(i, tcm.staticMethod(descs.get(i), "get", IntSupplier.class).getAsInt());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOutputOrderIsDeterministic() {
+        List<String> sequential = new ArrayList<>();
+        Gizmo seq = Gizmo.create((path, bytes) -> sequential.add(path))
+                .withLambdaStrategy(LambdaStrategy.ANONYMOUS_CLASS);
+        builders("io.quarkus.gizmo2.Ordered", 40).forEach(seq::class_);
+
+        List<String> parallel = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        Gizmo par = Gizmo.create((path, bytes) -> {
+            // the output is only ever called from the calling thread
+            assertSame(caller, Thread.currentThread());
+            parallel.add(path);
+        }).withLambdaStrategy(LambdaStrategy.ANONYMOUS_CLASS);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            par.classes(builders("io.quarkus.gizmo2.Ordered", 40), executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testFailureDeliversPrefix() {
+        List<String> written = new ArrayList<>();
+        Gizmo g = Gizmo.create((path, bytes) -> written.add(path));
+        Map<ClassDesc, Consumer<ClassCreator>> builders = new LinkedHashMap<>();
+        builders.put(ClassDesc.of("io.quarkus.gizmo2.First"), cc -> {
+        });
+        builders.put(ClassDesc.of("io.quarkus.gizmo2.Broken"), cc -> {
+            throw new IllegalStateException("broken");
+        });
+        builders.put(ClassDesc.of("io.quarkus.gizmo2.Third"), cc -> {
+        });
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> g.classes(builders));
+        assertEquals("broken", e.getMessage());
+        assertEquals(List.of("io/quarkus/gizmo2/First.class"), written);
+    }
+
+    @Test
+    public void testInterfaces() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        Map<ClassDesc, Consumer<InterfaceCreator>> builders = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            builders.put(ClassDesc.of("io.quarkus.gizmo2.BatchIface" + i), ic -> {
+            });
+        }
+        List<ClassDesc> descs = g.interfaces(builders);
+        for (ClassDesc desc : descs) {
+            assertTrue(tcm.loadClass(desc).isInterface());
+        }
+    }
+}
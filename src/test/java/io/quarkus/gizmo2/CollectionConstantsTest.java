@@ -9,6 +9,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -232,6 +233,53 @@ public final class CollectionConstantsTest {
         assertEquals(elevenMap, tcm.staticMethod(desc, "test1", ClassMapTest.class).get());
     }
 
+    @Test
+    public void testLargeConstantCollections() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.TestLargeCollections");
+        List<String> bigList = IntStream.range(0, 1000).mapToObj(i -> "item" + i).toList();
+        // more chunks than fit into one bootstrap call; repeated values keep the constant pool small
+        List<String> hugeList = IntStream.range(0, 70_000).mapToObj(i -> "item" + i % 10).toList();
+        Set<String> bigSet = Set.copyOf(bigList);
+        Map<String, String> bigMap = bigList.stream().collect(Collectors.toMap(Function.identity(), s -> s + "!"));
+        g.class_(desc, zc -> {
+            zc.sourceFile(file());
+            zc.staticMethod("test0", mc -> {
+                mc.returning(List.class);
+                mc.body(b0 -> {
+                    b0.line(nextLine());
+                    b0.return_(Const.of(bigList));
+                });
+            });
+            zc.staticMethod("test1", mc -> {
+                mc.returning(List.class);
+                mc.body(b0 -> {
+                    b0.line(nextLine());
+                    b0.return_(Const.of(hugeList));
+                });
+            });
+            zc.staticMethod("test2", mc -> {
+                mc.returning(Set.class);
+                mc.body(b0 -> {
+                    b0.line(nextLine());
+                    b0.return_(Const.of(bigSet));
+                });
+            });
+            zc.staticMethod("test3", mc -> {
+                mc.returning(Map.class);
+                mc.body(b0 -> {
+                    b0.line(nextLine());
+                    b0.return_(Const.of(bigMap));
+                });
+            });
+        });
+        assertEquals(bigList, tcm.staticMethod(desc, "test0", StringListTest.class).get());
+        assertEquals(hugeList, tcm.staticMethod(desc, "test1", StringListTest.class).get());
+        assertEquals(bigSet, tcm.staticMethod(desc, "test2", StringSetTest.class).get());
+        assertEquals(bigMap, tcm.staticMethod(desc, "test3", StringMapTest.class).get());
+    }
+
     @SuppressWarnings("SpellCheckingInspection")
     @Test
     public void testResourceStringList() {
@@ -326,6 +374,34 @@ public final class CollectionConstantsTest {
         assertEquals(big1, tcm.staticMethod(desc, "test0", StringMapTest.class).get());
     }
 
+    @Test
+    public void testResourceStringsManyEntries() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.TestResourceStrings");
+        // include empty strings, line breaks, characters outside the BMP, and unpaired surrogates
+        List<String> list = IntStream.range(0, 5000)
+                .mapToObj(i -> i % 100 == 0 ? ""
+                        : i % 101 == 0 ? "lone \ud83d" + i
+                                : "line " + i + "\n\u00e9\ud83d\ude00" + i)
+                .toList();
+        Map<String, String> map = IntStream.range(0, 5000).boxed()
+                .collect(Collectors.toMap(i -> i % 11 == 0 ? "\ude00key" + i : "key" + i,
+                        i -> i % 7 == 0 ? "" : "value\r\n" + i));
+        g.class_(desc, zc -> {
+            zc.staticMethod("test0", mc -> {
+                mc.returning(List.class);
+                mc.body(b0 -> b0.return_(zc.stringListResourceConstant("list", list)));
+            });
+            zc.staticMethod("test1", mc -> {
+                mc.returning(Map.class);
+                mc.body(b0 -> b0.return_(zc.stringMapResourceConstant("map", map)));
+            });
+        });
+        assertEquals(list, tcm.staticMethod(desc, "test0", StringListTest.class).get());
+        assertEquals(map, tcm.staticMethod(desc, "test1", StringMapTest.class).get());
+    }
+
     public interface StringListTest {
         List<String> get();
     }
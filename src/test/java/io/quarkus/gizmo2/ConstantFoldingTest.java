@@ -0,0 +1,163 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.Instruction;
+import io.smallrye.classfile.MethodModel;
+
+public final class ConstantFoldingTest {
+
+    @Test
+    public void testIntArithmetic() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.FoldInt");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("overflow", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.add(Const.of(Integer.MAX_VALUE), Const.of(1))));
+            });
+            cc.staticMethod("minDiv", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.div(Const.of(Integer.MIN_VALUE), Const.of(-1))));
+            });
+            cc.staticMethod("shift", mc -> {
+                mc.returning(int.class);
+                // the shift distance is masked to 5 bits
+                mc.body(b0 -> b0.return_(b0.shl(Const.of(1), Const.of(33))));
+            });
+            cc.staticMethod("mask", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.or(b0.and(Const.of(0xFF00), Const.of(0x0FF0)), b0.shl(Const.of(1), 2))));
+            });
+            cc.staticMethod("widened", mc -> {
+                mc.returning(long.class);
+                mc.body(b0 -> b0.return_(b0.ushr(Const.of(-1L), Const.of(60))));
+            });
+            cc.staticMethod("casts", mc -> {
+                mc.returning(int.class);
+                // the folded casts leave nothing behind
+                mc.body(b0 -> b0.return_(b0.add(b0.cast(b0.cast(Const.of(3.9), float.class), int.class),
+                        b0.cast(Const.of(0x1_0000_0002L), int.class))));
+            });
+        });
+        assertEquals(Integer.MIN_VALUE, tcm.staticMethod(desc, "overflow", IntSupplier.class).getAsInt());
+        assertEquals(Integer.MIN_VALUE, tcm.staticMethod(desc, "minDiv", IntSupplier.class).getAsInt());
+        assertEquals(2, tcm.staticMethod(desc, "shift", IntSupplier.class).getAsInt());
+        assertEquals(0x0F04, tcm.staticMethod(desc, "mask", IntSupplier.class).getAsInt());
+        assertEquals(15L, tcm.staticMethod(desc, "widened", LongSupplier.class).getAsLong());
+        assertEquals(5, tcm.staticMethod(desc, "casts", IntSupplier.class).getAsInt());
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        for (MethodModel method : model.methods()) {
+            // a single constant load and a return
+            assertEquals(2, instructionCount(method), method.methodName().stringValue());
+        }
+    }
+
+    @Test
+    public void testDivisionByZeroIsNotFolded() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.FoldDivZero");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(long.class);
+                mc.body(b0 -> b0.return_(b0.rem(Const.of(1L), Const.of(0L))));
+            });
+        });
+        LongSupplier test = tcm.staticMethod(desc, "test", LongSupplier.class);
+        assertThrows(ArithmeticException.class, test::getAsLong);
+    }
+
+    @Test
+    public void testFloatingPoint() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.FoldFloat");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("divZero", mc -> {
+                mc.returning(double.class);
+                mc.body(b0 -> b0.return_(b0.div(Const.of(-1.0), Const.of(0.0))));
+            });
+            cc.staticMethod("remainder", mc -> {
+                mc.returning(double.class);
+                mc.body(b0 -> b0.return_(b0.rem(Const.of(-5.5), Const.of(2.0))));
+            });
+            cc.staticMethod("cmplNaN", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.cmpl(Const.of(Float.NaN), Const.of(1.0f))));
+            });
+            cc.staticMethod("cmpgNaN", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.cmpg(Const.of(Double.NaN), Const.of(1.0))));
+            });
+            cc.staticMethod("cmpgZeros", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.cmpg(Const.of(-0.0), Const.of(0.0))));
+            });
+            cc.staticMethod("cmpZeros", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.cmp(Const.of(-0.0), Const.of(0.0))));
+            });
+            cc.staticMethod("ltNaN", mc -> {
+                mc.returning(boolean.class);
+                mc.body(b0 -> b0.return_(b0.lt(Const.of(Double.NaN), Const.of(1.0))));
+            });
+        });
+        assertEquals(Double.NEGATIVE_INFINITY, tcm.staticMethod(desc, "divZero", DoubleSupplier.class).getAsDouble());
+        assertEquals(-1.5, tcm.staticMethod(desc, "remainder", DoubleSupplier.class).getAsDouble());
+        assertEquals(-1, tcm.staticMethod(desc, "cmplNaN", IntSupplier.class).getAsInt());
+        assertEquals(1, tcm.staticMethod(desc, "cmpgNaN", IntSupplier.class).getAsInt());
+        assertEquals(0, tcm.staticMethod(desc, "cmpgZeros", IntSupplier.class).getAsInt());
+        assertEquals(-1, tcm.staticMethod(desc, "cmpZeros", IntSupplier.class).getAsInt());
+        assertFalse(tcm.staticMethod(desc, "ltNaN", BooleanSupplier.class).getAsBoolean());
+    }
+
+    @Test
+    public void testConstantIf() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.FoldIf");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("taken", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> {
+                    b0.ifElse(b0.lt(Const.of(1), Const.of(2)), b1 -> b1.return_(10), b1 -> b1.return_(20));
+                });
+            });
+            cc.staticMethod("skipped", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> {
+                    b0.if_(b0.eq(Const.of(3L), Const.of(4L)), b1 -> b1.return_(10));
+                    b0.return_(20);
+                });
+            });
+            cc.staticMethod("cond", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(b0.cond(int.class, Const.of(false), b1 -> b1.yield(Const.of(1)),
+                        b1 -> b1.yield(Const.of(2)))));
+            });
+        });
+        assertEquals(10, tcm.staticMethod(desc, "taken", IntSupplier.class).getAsInt());
+        assertEquals(20, tcm.staticMethod(desc, "skipped", IntSupplier.class).getAsInt());
+        assertEquals(2, tcm.staticMethod(desc, "cond", IntSupplier.class).getAsInt());
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        for (MethodModel method : model.methods()) {
+            assertEquals(2, instructionCount(method), method.methodName().stringValue());
+        }
+    }
+
+    private static long instructionCount(MethodModel method) {
+        return method.findAttribute(Attributes.code()).orElseThrow().elementStream()
+                .filter(Instruction.class::isInstance)
+                .count();
+    }
+}
@@ -1,8 +1,10 @@
 package io.quarkus.gizmo2;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.lang.constant.ClassDesc;
+import java.util.Random;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
@@ -87,4 +89,35 @@ public class ConstantsTest {
         test(() -> Const.of(boolean.class), "boolean|Ljava/lang/Class;");
         test(() -> Const.of(void.class), "void|Ljava/lang/Class;");
     }
+
+    @Test
+    public void primitiveArrayConstants() {
+        Random random = new Random(1234);
+        byte[] bytes = new byte[100_000];
+        random.nextBytes(bytes);
+        int[] ints = random.ints(50_000).toArray();
+        int[] smallInts = random.ints(50_000, -100, 100).toArray();
+        long[] longs = random.longs(1_000).toArray();
+        char[] chars = "Hello, \u0000 world \uffff!".toCharArray();
+        short[] shorts = { 0, -1, 1, Short.MIN_VALUE, Short.MAX_VALUE };
+        assertArrayEquals(bytes, (byte[]) arrayConstant(() -> Const.ofBytes(bytes)));
+        assertArrayEquals(ints, (int[]) arrayConstant(() -> Const.ofIntArray(ints)));
+        assertArrayEquals(smallInts, (int[]) arrayConstant(() -> Const.ofIntArray(smallInts)));
+        assertArrayEquals(longs, (long[]) arrayConstant(() -> Const.ofLongArray(longs)));
+        assertArrayEquals(chars, (char[]) arrayConstant(() -> Const.ofCharArray(chars)));
+        assertArrayEquals(shorts, (short[]) arrayConstant(() -> Const.ofShortArray(shorts)));
+        assertArrayEquals(new int[0], (int[]) arrayConstant(() -> Const.ofIntArray()));
+    }
+
+    private Object arrayConstant(Supplier<Const> bytecode) {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_("io.quarkus.gizmo2.TestArrayConstants", cc -> {
+            cc.staticMethod("returnValue", mc -> {
+                mc.returning(Object.class);
+                mc.body(bc -> bc.return_(bytecode.get()));
+            });
+        });
+        return tcm.staticMethod(desc, "returnValue", Supplier.class).get();
+    }
 }
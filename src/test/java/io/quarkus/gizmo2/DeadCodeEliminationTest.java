@@ -0,0 +1,111 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.desc.MethodDesc;
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.Instruction;
+import io.smallrye.classfile.MethodModel;
+import io.smallrye.classfile.Opcode;
+
+public final class DeadCodeEliminationTest {
+
+    @Test
+    public void testDeadTail() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.DeadTail");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                ParamVar counter = mc.parameter("counter", Object.class);
+                mc.body(b0 -> {
+                    b0.if_(Const.of(true), b1 -> b1.return_(1));
+                    // none of this is emitted
+                    LocalVar x = b0.localVar("x", Const.of(5));
+                    b0.loop(b1 -> {
+                        b1.invokeVirtual(MethodDesc.of(AtomicInteger.class, "incrementAndGet", int.class),
+                                b1.cast(counter, AtomicInteger.class));
+                        b1.if_(b1.gt(x, 3), b2 -> b2.break_(b1));
+                    });
+                    b0.return_(x);
+                });
+            });
+        });
+        AtomicInteger counter = new AtomicInteger();
+        assertEquals(1, tcm.staticMethod(desc, "test", ToIntFunction.class).applyAsInt(counter));
+        assertEquals(0, counter.get());
+        assertEquals(List.of(Opcode.ICONST_1, Opcode.IRETURN), opcodes(tcm, desc));
+    }
+
+    @Test
+    public void testConsecutiveConstantIfs() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.ConsecutiveConstantIfs");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> {
+                    b0.block(b1 -> {
+                        b1.if_(Const.of(true), b2 -> b2.return_(1));
+                        // none of this is emitted, but the blocks stay open as written
+                        b1.if_(Const.of(true), b2 -> b2.return_(2));
+                        b1.if_(Const.of(true), b2 -> b2.break_(b1));
+                        b1.invokeStatic(MethodDesc.of(Thread.class, "onSpinWait", void.class));
+                    });
+                    b0.if_(Const.of(true), b1 -> b1.return_(3));
+                    b0.return_(4);
+                });
+            });
+        });
+        assertEquals(1, tcm.staticMethod(desc, "test", IntSupplier.class).getAsInt());
+        assertEquals(List.of(Opcode.ICONST_1, Opcode.IRETURN), opcodes(tcm, desc));
+    }
+
+    @Test
+    public void testTryFinallyExits() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.DeadFinallyExit");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> {
+                    b0.try_(tc -> {
+                        tc.body(b1 -> {
+                            b1.if_(b1.lt(Const.of(1), Const.of(2)), b2 -> b2.return_(1));
+                            // this exit cannot occur, so it gets no copy of the cleanup
+                            b1.return_(2);
+                        });
+                        tc.finally_(b1 -> b1.invokeStatic(MethodDesc.of(Thread.class, "onSpinWait", void.class)));
+                    });
+                });
+            });
+        });
+        assertEquals(1, tcm.staticMethod(desc, "test", IntSupplier.class).getAsInt());
+        List<Opcode> opcodes = opcodes(tcm, desc);
+        assertEquals(1, opcodes.stream().filter(op -> op == Opcode.IRETURN).count());
+        assertFalse(opcodes.contains(Opcode.ICONST_2));
+    }
+
+    private static List<Opcode> opcodes(TestClassMaker tcm, ClassDesc desc) {
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        MethodModel method = model.methods().stream()
+                .filter(m -> m.methodName().equalsString("test"))
+                .findFirst()
+                .orElseThrow();
+        return method.findAttribute(Attributes.code()).orElseThrow().elementStream()
+                .filter(Instruction.class::isInstance)
+                .map(e -> ((Instruction) e).opcode())
+                .toList();
+    }
+}
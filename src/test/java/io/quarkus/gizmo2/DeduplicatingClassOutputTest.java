@@ -0,0 +1,75 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.constant.ClassDesc;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public final class DeduplicatingClassOutputTest {
+
+    private static List<String> run(Path manifest, String fieldName) {
+        List<String> written = new ArrayList<>();
+        try (DeduplicatingClassOutput output = ((ClassOutput) (path, bytes) -> written.add(path)).deduplicating(manifest)) {
+            Gizmo g = Gizmo.create(output);
+            g.class_(ClassDesc.of("io.quarkus.gizmo2.Stable"), cc -> {
+            });
+            g.class_(ClassDesc.of("io.quarkus.gizmo2.Changing"), cc -> {
+                cc.field(fieldName, fc -> fc.setType(int.class));
+            });
+            output.write("META-INF/stable.txt", "stable".getBytes(StandardCharsets.UTF_8));
+        }
+        return written;
+    }
+
+    @Test
+    public void testUnchangedFilesAreSkipped(@TempDir Path dir) {
+        Path manifest = dir.resolve("manifest.bin");
+        assertEquals(List.of(
+                "io/quarkus/gizmo2/Stable.class",
+                "io/quarkus/gizmo2/Changing.class",
+                "META-INF/stable.txt"), run(manifest, "a"));
+        assertTrue(Files.isRegularFile(manifest));
+        assertEquals(List.of("io/quarkus/gizmo2/Changing.class"), run(manifest, "b"));
+        assertEquals(List.of(), run(manifest, "b"));
+    }
+
+    @Test
+    public void testCorruptManifest(@TempDir Path dir) throws IOException {
+        Path manifest = dir.resolve("manifest.bin");
+        Files.write(manifest, new byte[] { 1, 2, 3 });
+        assertEquals(3, run(manifest, "a").size());
+        assertEquals(List.of(), run(manifest, "a"));
+    }
+
+    @Test
+    public void testManifestIsReproducible(@TempDir Path dir) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            paths.add("META-INF/file" + i + ".txt");
+        }
+        Path first = dir.resolve("first.bin");
+        Path second = dir.resolve("second.bin");
+        writeAll(first, paths);
+        Collections.reverse(paths);
+        writeAll(second, paths);
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+
+    private static void writeAll(Path manifest, List<String> paths) {
+        try (DeduplicatingClassOutput output = ((ClassOutput) (path, bytes) -> {
+        }).deduplicating(manifest)) {
+            for (String path : paths) {
+                output.write(path, path.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.constant.ClassDesc;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public final class FlightRecorderTest {
+
+    @Test
+    public void testEvents(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("gizmo.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("gizmo.ClassGenerated");
+            recording.enable("gizmo.MethodGenerated");
+            recording.enable("gizmo.LambdaDefined");
+            recording.start();
+            Gizmo.create().withLambdaStrategy(LambdaStrategy.CLASSIC).class_(ClassDesc.of("io.quarkus.gizmo2.Recorded"),
+                    cc -> {
+                        cc.staticMethod("get", mc -> {
+                            mc.returning(Object.class);
+                            mc.body(b0 -> {
+                                b0.return_(b0.lambda(Supplier.class, lc -> lc.body(b1 -> b1.return_(Const.of("x")))));
+                            });
+                        });
+                    });
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent classEvent = single(events, "gizmo.ClassGenerated");
+        assertEquals("io.quarkus.gizmo2.Recorded", classEvent.getString("type"));
+        assertTrue(classEvent.getInt("bytes") > 0);
+        assertEquals(1, classEvent.getInt("lambdas"));
+
+        RecordedEvent lambdaEvent = single(events, "gizmo.LambdaDefined");
+        assertEquals("io.quarkus.gizmo2.Recorded", lambdaEvent.getString("owner"));
+        assertEquals("java.util.function.Supplier", lambdaEvent.getString("type"));
+        assertEquals("CLASSIC", lambdaEvent.getString("strategy"));
+
+        // the method itself, and the lambda body method
+        List<RecordedEvent> methodEvents = events.stream()
+                .filter(e -> e.getEventType().getName().equals("gizmo.MethodGenerated"))
+                .toList();
+        assertEquals(2, methodEvents.size());
+        assertTrue(methodEvents.stream().anyMatch(e -> e.getString("name").equals("get")
+                && e.getString("descriptor").equals("()Ljava/lang/Object;")
+                && e.getInt("items") > 0));
+    }
+
+    @Test
+    public void testDisabledByDefault(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("gizmo.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            Gizmo.create().class_(ClassDesc.of("io.quarkus.gizmo2.NotRecorded"), cc -> {
+            });
+            recording.stop();
+            recording.dump(file);
+        }
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(e -> e.getEventType().getName().startsWith("gizmo.")));
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,57 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+public final class GizmoListenerTest {
+
+    @Test
+    public void testMetrics() {
+        List<GizmoListener.TypeMetrics> reported = new ArrayList<>();
+        Gizmo g = Gizmo.create((ClassOutput) (path, bytes) -> {
+        }).withLambdaStrategy(LambdaStrategy.ANONYMOUS_CLASS).withListener(reported::add);
+        g.class_(ClassDesc.of("io.quarkus.gizmo2.Measured"), cc -> {
+            cc.staticMethod("get", mc -> {
+                mc.returning(Object.class);
+                mc.body(b0 -> {
+                    Expr supplier = b0.lambda(Supplier.class, lc -> lc.body(b1 -> b1.return_(Const.of("x"))));
+                    b0.return_(supplier);
+                });
+            });
+            cc.class_("Member", mcc -> {
+            });
+        });
+        assertEquals(3, reported.size());
+        // nested types are reported first, because they are finished first
+        GizmoListener.TypeMetrics outer = reported.get(2);
+        assertEquals(ClassDesc.of("io.quarkus.gizmo2.Measured"), outer.type());
+        assertEquals(1, outer.lambdaCount());
+        assertEquals(1, outer.methodCount());
+        assertTrue(outer.maxCodeLength() > 0);
+        assertTrue(outer.byteSize() > 0);
+        assertTrue(outer.constantPoolSize() > 0);
+        assertTrue(outer.builderNanos() > 0);
+        assertTrue(outer.buildNanos() >= outer.builderNanos());
+        for (GizmoListener.TypeMetrics metrics : reported.subList(0, 2)) {
+            assertEquals(0, metrics.lambdaCount());
+            assertTrue(metrics.buildNanos() <= outer.buildNanos());
+        }
+    }
+
+    @Test
+    public void testListenersAreChained() {
+        List<String> calls = new ArrayList<>();
+        Gizmo g = Gizmo.create()
+                .withListener(m -> calls.add("first"))
+                .withListener(m -> calls.add("second"));
+        g.interface_(ClassDesc.of("io.quarkus.gizmo2.MeasuredIface"), ic -> {
+        });
+        assertEquals(List.of("first", "second"), calls);
+    }
+}
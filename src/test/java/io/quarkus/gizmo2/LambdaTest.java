@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.lang.constant.ClassDesc;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.IntSupplier;
@@ -15,13 +16,14 @@ import org.junit.jupiter.params.Parameter;
 import org.junit.jupiter.params.ParameterizedClass;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import io.quarkus.gizmo2.creator.BlockCreator;
 import io.quarkus.gizmo2.desc.Descs;
 import io.quarkus.gizmo2.desc.InterfaceMethodDesc;
 import io.quarkus.gizmo2.desc.MethodDesc;
 import io.quarkus.gizmo2.testing.TestClassMaker;
 
 @ParameterizedClass
-@ValueSource(strings = { "OPTIMIZED", "CLASSIC", "ANONYMOUS_CLASS" })
+@ValueSource(strings = { "OPTIMIZED", "OPTIMIZED_RESOURCE", "CLASSIC", "ANONYMOUS_CLASS", "NESTMATE_CLASS" })
 public class LambdaTest {
     private static final MethodDesc MD_StringBuilder_append = Descs.MD_StringBuilder.append(CD_String);
 
@@ -347,4 +349,136 @@ public class LambdaTest {
         assertEquals(13, tcm.staticMethod(desc, "runTest", IntSupplier.class).getAsInt());
     }
 
+    @Test
+    public void testIdenticalLambdasShareClass() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withLambdaStrategy(LambdaStrategy.valueOf(lambdaStrategy)));
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_("io.quarkus.gizmo2.IdenticalLambdas", cc -> {
+            cc.staticMethod("runTest", smc -> {
+                // static boolean runTest() {
+                //    String a = "a";
+                //    Supplier first = () -> a;
+                //    String b = "b";
+                //    Supplier second = () -> b;
+                //    if (!first.get().equals("a") || !second.get().equals("b")) return false;
+                //    return first.getClass() == second.getClass();
+                // }
+                smc.returning(boolean.class);
+                smc.body(b0 -> {
+                    Expr first = b0.localVar("first", supplierOf(b0, "a"));
+                    Expr second = b0.localVar("second", supplierOf(b0, "b"));
+                    MethodDesc get = MethodDesc.of(Supplier.class, "get", Object.class);
+                    b0.if_(b0.logicalNot(b0.objEquals(b0.invokeInterface(get, first), Const.of("a"))),
+                            b1 -> b1.return_(false));
+                    b0.if_(b0.logicalNot(b0.objEquals(b0.invokeInterface(get, second), Const.of("b"))),
+                            b1 -> b1.return_(false));
+                    b0.return_(b0.eq(
+                            b0.invokeVirtual(Descs.MD_Object.getClass, first),
+                            b0.invokeVirtual(Descs.MD_Object.getClass, second)));
+                });
+            });
+        });
+        boolean shared = tcm.staticMethod(desc, "runTest", BooleanSupplier.class).getAsBoolean();
+        // only the optimized strategies share a class between call sites
+        assertEquals(lambdaStrategy.startsWith("OPTIMIZED"), shared);
+    }
+
+    @Test
+    public void testNonCapturingLambdaSingleton() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withLambdaStrategy(LambdaStrategy.valueOf(lambdaStrategy)));
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_("io.quarkus.gizmo2.NonCapturingLambda", cc -> {
+            cc.staticMethod("runTest", smc -> {
+                // static Object runTest() {
+                //    return () -> "foobar";
+                // }
+                smc.returning(Object.class); // always `Supplier`
+                smc.body(b0 -> {
+                    b0.return_(b0.lambda(Supplier.class, lc -> {
+                        lc.body(b1 -> {
+                            b1.return_("foobar");
+                        });
+                    }));
+                });
+            });
+        });
+        Supplier<?> runTest = tcm.staticMethod(desc, "runTest", Supplier.class);
+        Object first = runTest.get();
+        assertEquals("foobar", ((Supplier<?>) first).get());
+        // only the anonymous class strategy creates a new instance every time
+        assertEquals(!lambdaStrategy.equals("ANONYMOUS_CLASS"), first == runTest.get());
+    }
+
+    @Test
+    public void testLambdaInStaticInitializer() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withLambdaStrategy(LambdaStrategy.valueOf(lambdaStrategy)));
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_("io.quarkus.gizmo2.StaticInitializerLambda", cc -> {
+            // private static String secret = "foobar";
+            StaticFieldVar secret = cc.staticField("secret", ifc -> {
+                ifc.private_();
+                ifc.setType(String.class);
+                ifc.setInitial("foobar");
+            });
+            // private static final Supplier supplier = () -> secret;
+            StaticFieldVar supplier = cc.staticField("supplier", ifc -> {
+                ifc.private_();
+                ifc.final_();
+                ifc.setType(Supplier.class);
+                ifc.setInitializer(b0 -> {
+                    b0.yield(b0.lambda(Supplier.class, lc -> {
+                        lc.body(b1 -> {
+                            b1.return_(secret);
+                        });
+                    }));
+                });
+            });
+            cc.staticMethod("runTest", smc -> {
+                // static Object runTest() {
+                //    return supplier.get();
+                // }
+                smc.returning(Object.class);
+                smc.body(b0 -> {
+                    b0.return_(b0.invokeInterface(MethodDesc.of(Supplier.class, "get", Object.class), supplier));
+                });
+            });
+        });
+        assertEquals("foobar", tcm.staticMethod(desc, "runTest", Supplier.class).get());
+    }
+
+    @Test
+    public void testIdenticalNonCapturingLambdasShareInstance() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withLambdaStrategy(LambdaStrategy.valueOf(lambdaStrategy)));
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_("io.quarkus.gizmo2.IdenticalNonCapturingLambdas", cc -> {
+            for (String name : new String[] { "first", "second" }) {
+                cc.staticMethod(name, smc -> {
+                    // static Object first() / second() {
+                    //    return () -> "foobar";
+                    // }
+                    smc.returning(Object.class); // always `Supplier`
+                    smc.body(b0 -> {
+                        b0.return_(b0.lambda(Supplier.class, lc -> {
+                            lc.body(b1 -> {
+                                b1.return_("foobar");
+                            });
+                        }));
+                    });
+                });
+            }
+        });
+        Object first = tcm.staticMethod(desc, "first", Supplier.class).get();
+        Object second = tcm.staticMethod(desc, "second", Supplier.class).get();
+        assertEquals("foobar", ((Supplier<?>) second).get());
+        // only the optimized strategies share lambdas between call sites
+        assertEquals(lambdaStrategy.startsWith("OPTIMIZED"), first == second);
+    }
+
+    private static Expr supplierOf(BlockCreator b0, String value) {
+        LocalVar captured = b0.localVar("captured", Const.of(value));
+        return b0.lambda(Supplier.class, lc -> {
+            var capturedValue = lc.capture(captured);
+            lc.body(b1 -> b1.return_(capturedValue));
+        });
+    }
 }
@@ -0,0 +1,92 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.desc.MethodDesc;
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.MethodModel;
+
+public final class LocalSlotReuseTest {
+
+    @Test
+    public void testSequentialLocals() {
+        int withoutReuse = maxLocals(Gizmo.create().withLocalSlotReuse(false), "io.quarkus.gizmo2.NoReuse");
+        int withReuse = maxLocals(Gizmo.create().withLocalSlotReuse(true), "io.quarkus.gizmo2.Reuse");
+        // a, b, c share a slot, l1 and l2 share a slot pair, i needs its own slot
+        assertEquals(4, withReuse);
+        assertTrue(withReuse < withoutReuse);
+    }
+
+    private static int maxLocals(Gizmo gizmo, String className) {
+        TestClassMaker tcm = TestClassMaker.create(gizmo);
+        ClassDesc desc = ClassDesc.of(className);
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(long.class);
+                mc.body(b0 -> {
+                    LocalVar a = b0.localVar("a", Const.of(1));
+                    LocalVar b = b0.localVar("b", b0.add(a, 2));
+                    LocalVar c = b0.localVar("c", b0.mul(b, 3));
+                    LocalVar l1 = b0.localVar("l1", Const.of(10L));
+                    LocalVar l2 = b0.localVar("l2", b0.add(l1, 5L));
+                    LocalVar i = b0.localVar("i", Const.of(0));
+                    b0.while_(b1 -> b1.yield(b1.lt(i, c)), b1 -> {
+                        b1.inc(i);
+                        b1.inc(l2);
+                    });
+                    b0.return_(l2);
+                });
+            });
+        });
+        assertEquals(24L, tcm.staticMethod(desc, "test", LongSupplier.class).getAsLong());
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        MethodModel method = model.methods().stream()
+                .filter(m -> m.methodName().equalsString("test"))
+                .findFirst()
+                .orElseThrow();
+        return method.findAttribute(Attributes.code()).orElseThrow().maxLocals();
+    }
+
+    @Test
+    public void testNestedAndTryFinally() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withLocalSlotReuse(true));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.ReuseNested");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> {
+                    LocalVar counter = b0.localVar("counter", b0.new_(AtomicInteger.class));
+                    LocalVar a = b0.localVar("a", Const.of(4));
+                    b0.if_(b0.gt(a, 2), b1 -> {
+                        LocalVar x = b1.localVar("x", b1.mul(a, 10));
+                        b1.invokeVirtual(MethodDesc.of(AtomicInteger.class, "addAndGet", int.class, int.class), counter, x);
+                    });
+                    LocalVar s = b0.localVar("s", Const.of("abc"));
+                    b0.try_(tc -> {
+                        tc.body(b1 -> {
+                            LocalVar y = b1.localVar("y",
+                                    b1.invokeVirtual(MethodDesc.of(String.class, "length", int.class), s));
+                            LocalVar z = b1.localVar("z", b1.add(y, 1));
+                            b1.invokeVirtual(MethodDesc.of(AtomicInteger.class, "addAndGet", int.class, int.class), counter, z);
+                        });
+                        tc.finally_(b1 -> b1.invokeVirtual(MethodDesc.of(AtomicInteger.class, "incrementAndGet", int.class),
+                                counter));
+                    });
+                    b0.return_(b0.invokeVirtual(MethodDesc.of(AtomicInteger.class, "get", int.class), counter));
+                });
+            });
+        });
+        // 40 + 4 + 1
+        assertEquals(45, tcm.staticMethod(desc, "test", IntSupplier.class).getAsInt());
+    }
+}
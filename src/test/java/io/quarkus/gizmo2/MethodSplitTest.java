@@ -0,0 +1,238 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.creator.BlockCreator;
+import io.quarkus.gizmo2.desc.FieldDesc;
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.MethodModel;
+import io.smallrye.classfile.instruction.InvokeInstruction;
+
+public final class MethodSplitTest {
+
+    @Test
+    public void testStaticMethod() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withMethodSplitThreshold(200));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SplitStatic");
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar total = cc.staticField("total", ifc -> ifc.setType(int.class));
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    b0.set(total, Const.of(0));
+                    LocalVar base = b0.localVar("base", b0.mul(x, 2));
+                    for (int i = 0; i < 50; i++) {
+                        b0.set(total, b0.add(total, b0.add(base, Const.of(i))));
+                    }
+                    countTo(b0, x, total);
+                    b0.return_(total);
+                });
+            });
+        });
+        IntUnaryOperator test = tcm.staticMethod(desc, "test", IntUnaryOperator.class);
+        // 50 * 2x + (0 + 1 + ... + 49) + max(x, 10)
+        assertEquals(300 + 1225 + 10, test.applyAsInt(3));
+        assertEquals(2400 + 1225 + 24, test.applyAsInt(24));
+        assertFalse(helpers(tcm, desc).isEmpty());
+    }
+
+    @Test
+    public void testInstanceMethod() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withMethodSplitThreshold(200));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SplitInstance");
+        tcm.gizmo().class_(desc, cc -> {
+            FieldDesc totalDesc = cc.field("total", ifc -> ifc.setType(int.class));
+            cc.defaultConstructor();
+            cc.method("test", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    InstanceFieldVar total = cc.this_().field(totalDesc);
+                    for (int i = 0; i < 50; i++) {
+                        b0.set(total, b0.add(total, b0.add(x, Const.of(i))));
+                    }
+                    countTo(b0, x, total);
+                    b0.return_(total);
+                });
+            });
+        });
+        Object instance = tcm.constructor(desc, Supplier.class).get();
+        IntOf test = tcm.virtualMethod(desc, "test", IntOf.class);
+        assertEquals(150 + 1225 + 10, test.apply(instance, 3));
+        List<MethodModel> helpers = helpers(tcm, desc);
+        assertFalse(helpers.isEmpty());
+        for (MethodModel helper : helpers) {
+            assertTrue((helper.flags().flagsMask() & ClassFile.ACC_PRIVATE) != 0);
+            assertTrue((helper.flags().flagsMask() & ClassFile.ACC_STATIC) != 0);
+            // `this` is passed first
+            assertEquals(desc, helper.methodTypeSymbol().parameterType(0));
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SplitDisabled");
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar total = cc.staticField("total", ifc -> ifc.setType(int.class));
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    for (int i = 0; i < 50; i++) {
+                        b0.set(total, b0.add(total, x));
+                    }
+                    b0.return_(total);
+                });
+            });
+        });
+        assertEquals(50, tcm.staticMethod(desc, "test", IntUnaryOperator.class).applyAsInt(1));
+        assertTrue(helpers(tcm, desc).isEmpty());
+    }
+
+    @Test
+    public void testNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> Gizmo.create().withMethodSplitThreshold(-1));
+    }
+
+    @Test
+    public void testStaticInitializerChunks() {
+        // every initializer in its own method
+        assertEquals(5, staticInitializerHelpers(1, "io.quarkus.gizmo2.ClinitEach"));
+        // all initializers in one method
+        assertEquals(1, staticInitializerHelpers(10_000, "io.quarkus.gizmo2.ClinitGrouped"));
+        // not moved
+        assertEquals(0, staticInitializerHelpers(0, "io.quarkus.gizmo2.ClinitPlain"));
+    }
+
+    private static long staticInitializerHelpers(int chunkSize, String className) {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withStaticInitializerChunkSize(chunkSize));
+        ClassDesc desc = ClassDesc.of(className);
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar total = cc.staticField("total", ifc -> ifc.setType(int.class));
+            for (int i = 1; i <= 5; i++) {
+                int value = i;
+                cc.staticInitializer(b0 -> b0.set(total, b0.add(total, b0.mul(Const.of(value), Const.of(10)))));
+            }
+            cc.staticMethod("total", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(total));
+            });
+        });
+        assertEquals(150, tcm.staticMethod(desc, "total", IntSupplier.class).getAsInt());
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        return model.methods().stream()
+                .filter(m -> m.methodName().stringValue().startsWith("clinit$split$"))
+                .count();
+    }
+
+    @Test
+    public void testStaticFinalFieldInitializerNotMoved() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withStaticInitializerChunkSize(1));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.ClinitFinal");
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar total = cc.staticField("total", ifc -> ifc.setType(int.class));
+            cc.staticInitializer(b0 -> b0.set(total, b0.mul(Const.of(6), Const.of(7))));
+            StaticFieldVar answer = cc.staticField("ANSWER", ifc -> {
+                ifc.setType(int.class);
+                ifc.final_();
+                ifc.setInitializer(b0 -> b0.yield(b0.add(total, Const.of(100))));
+            });
+            cc.staticMethod("answer", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(answer));
+            });
+        });
+        // the store to the final field must stay in `<clinit>`
+        assertEquals(142, tcm.staticMethod(desc, "answer", IntSupplier.class).getAsInt());
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        assertEquals(1, model.methods().stream()
+                .filter(m -> m.methodName().stringValue().startsWith("clinit$split$"))
+                .count());
+    }
+
+    @Test
+    public void testLargeFinally() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withMethodSplitThreshold(200));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SplitFinally");
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar total = cc.staticField("total", ifc -> ifc.setType(int.class));
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    b0.set(total, Const.of(0));
+                    for (int i = 0; i < 50; i++) {
+                        b0.set(total, b0.add(total, Const.of(i)));
+                    }
+                    b0.try_(tc -> {
+                        tc.body(b1 -> b1.if_(b1.gt(x, 5), b2 -> b2.return_(x)));
+                        tc.finally_(b1 -> {
+                            for (int i = 0; i < 60; i++) {
+                                b1.set(total, b1.add(total, Const.of(i)));
+                            }
+                        });
+                    });
+                    b0.return_(total);
+                });
+            });
+        });
+        IntUnaryOperator test = tcm.staticMethod(desc, "test", IntUnaryOperator.class);
+        // (0 + 1 + ... + 49) + (0 + 1 + ... + 59)
+        assertEquals(1225 + 1770, test.applyAsInt(3));
+        assertEquals(7, test.applyAsInt(7));
+        List<MethodModel> helpers = helpers(tcm, desc);
+        assertFalse(helpers.isEmpty());
+        // the cleanup template is never written, so nothing may be moved out of it
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        Set<String> invoked = model.methods().stream()
+                .flatMap(m -> m.code().stream())
+                .flatMap(code -> code.elementStream())
+                .filter(InvokeInstruction.class::isInstance)
+                .map(e -> ((InvokeInstruction) e).name().stringValue())
+                .collect(Collectors.toSet());
+        for (MethodModel helper : helpers) {
+            assertTrue(invoked.contains(helper.methodName().stringValue()), helper.methodName().stringValue());
+        }
+    }
+
+    /**
+     * A nested block with its own local variable and a loop which breaks out of itself.
+     */
+    private static void countTo(BlockCreator b0, ParamVar x, Assignable total) {
+        b0.block(b1 -> {
+            LocalVar y = b1.localVar("y", x);
+            b1.loop(b2 -> {
+                b2.if_(b2.ge(y, 10), b3 -> b3.break_(b2));
+                b2.inc(y);
+            });
+            b1.set(total, b1.add(total, y));
+        });
+    }
+
+    private static List<MethodModel> helpers(TestClassMaker tcm, ClassDesc desc) {
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        return model.methods().stream()
+                .filter(m -> m.methodName().stringValue().startsWith("test$split$"))
+                .filter(m -> (m.flags().flagsMask() & ClassFile.ACC_SYNTHETIC) != 0)
+                .toList();
+    }
+
+    @FunctionalInterface
+    public interface IntOf {
+        int apply(Object self, int x);
+    }
+}
@@ -0,0 +1,111 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.Instruction;
+import io.smallrye.classfile.MethodModel;
+import io.smallrye.classfile.Opcode;
+
+public final class PeepholeTest {
+    private static final List<String> METHODS = List.of("boxUnbox", "selfAssign", "storeReload", "unusedBox");
+
+    @Test
+    public void testRewrittenCode() {
+        TestClassMaker tcm = create(Gizmo.create().withPeepholeOptimization(true), "io.quarkus.gizmo2.Peephole");
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.Peephole");
+        // Integer.valueOf(p).intValue() -> p
+        assertEquals(List.of(Opcode.ILOAD_0, Opcode.IRETURN), opcodes(tcm, desc, "boxUnbox"));
+        // x = x -> nothing
+        assertEquals(List.of(Opcode.ILOAD_0, Opcode.ISTORE_1, Opcode.ICONST_5, Opcode.ISTORE_2,
+                Opcode.ILOAD_1, Opcode.ILOAD_2, Opcode.IADD, Opcode.IRETURN), opcodes(tcm, desc, "selfAssign"));
+        // store y; load y -> dup; store y
+        assertEquals(List.of(Opcode.ILOAD_0, Opcode.ICONST_1, Opcode.IADD, Opcode.DUP, Opcode.ISTORE_1,
+                Opcode.ICONST_2, Opcode.IMUL, Opcode.IRETURN), opcodes(tcm, desc, "storeReload"));
+        // load x; box; pop -> nothing
+        assertEquals(List.of(Opcode.ILOAD_0, Opcode.ISTORE_1, Opcode.ICONST_5, Opcode.ISTORE_2,
+                Opcode.ILOAD_1, Opcode.ILOAD_2, Opcode.IADD, Opcode.IRETURN), opcodes(tcm, desc, "unusedBox"));
+    }
+
+    @Test
+    public void testSameResults() {
+        TestClassMaker plain = create(Gizmo.create(), "io.quarkus.gizmo2.NoPeephole");
+        TestClassMaker optimized = create(Gizmo.create().withPeepholeOptimization(true), "io.quarkus.gizmo2.Peephole");
+        for (String method : METHODS) {
+            IntUnaryOperator expected = plain.staticMethod(ClassDesc.of("io.quarkus.gizmo2.NoPeephole"), method,
+                    IntUnaryOperator.class);
+            IntUnaryOperator actual = optimized.staticMethod(ClassDesc.of("io.quarkus.gizmo2.Peephole"), method,
+                    IntUnaryOperator.class);
+            for (int p : new int[] { Integer.MIN_VALUE, -2, 0, 3, 1000, Integer.MAX_VALUE }) {
+                assertEquals(expected.applyAsInt(p), actual.applyAsInt(p), method + "(" + p + ")");
+            }
+        }
+        // and the optimized code is actually smaller
+        for (String method : METHODS) {
+            int before = opcodes(plain, ClassDesc.of("io.quarkus.gizmo2.NoPeephole"), method).size();
+            int after = opcodes(optimized, ClassDesc.of("io.quarkus.gizmo2.Peephole"), method).size();
+            assertTrue(after < before, method + ": expected " + after + " < " + before);
+        }
+    }
+
+    private static TestClassMaker create(Gizmo gizmo, String className) {
+        TestClassMaker tcm = TestClassMaker.create(gizmo);
+        tcm.gizmo().class_(ClassDesc.of(className), cc -> {
+            cc.staticMethod("boxUnbox", mc -> {
+                mc.returning(int.class);
+                ParamVar p = mc.parameter("p", int.class);
+                mc.body(b0 -> b0.return_(b0.unbox(b0.box(p))));
+            });
+            cc.staticMethod("selfAssign", mc -> {
+                mc.returning(int.class);
+                ParamVar p = mc.parameter("p", int.class);
+                mc.body(b0 -> {
+                    LocalVar x = b0.localVar("x", p);
+                    LocalVar y = b0.localVar("y", Const.of(5));
+                    b0.set(x, x);
+                    b0.return_(b0.add(x, y));
+                });
+            });
+            cc.staticMethod("storeReload", mc -> {
+                mc.returning(int.class);
+                ParamVar p = mc.parameter("p", int.class);
+                mc.body(b0 -> {
+                    LocalVar y = b0.localVar("y", b0.add(p, 1));
+                    b0.return_(b0.mul(y, 2));
+                });
+            });
+            cc.staticMethod("unusedBox", mc -> {
+                mc.returning(int.class);
+                ParamVar p = mc.parameter("p", int.class);
+                mc.body(b0 -> {
+                    LocalVar x = b0.localVar("x", p);
+                    LocalVar y = b0.localVar("y", Const.of(5));
+                    b0.box(x);
+                    b0.return_(b0.add(x, y));
+                });
+            });
+        });
+        return tcm;
+    }
+
+    private static List<Opcode> opcodes(TestClassMaker tcm, ClassDesc desc, String name) {
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        MethodModel method = model.methods().stream()
+                .filter(m -> m.methodName().equalsString(name))
+                .findFirst()
+                .orElseThrow();
+        return method.findAttribute(Attributes.code()).orElseThrow().elementStream()
+                .filter(Instruction.class::isInstance)
+                .map(e -> ((Instruction) e).opcode())
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package io.quarkus.gizmo2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.constant.ClassDesc;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.gizmo2.desc.MethodDesc;
+import io.quarkus.gizmo2.testing.TestClassMaker;
+import io.smallrye.classfile.Attributes;
+import io.smallrye.classfile.ClassFile;
+import io.smallrye.classfile.ClassModel;
+import io.smallrye.classfile.Instruction;
+import io.smallrye.classfile.MethodModel;
+import io.smallrye.classfile.Opcode;
+
+public final class SharedFinallyTest {
+
+    @Test
+    public void testGlobalStrategy() {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withFinallyStrategy(FinallyStrategy.SHARED));
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SharedFinally");
+        tcm.gizmo().class_(desc, cc -> {
+            StaticFieldVar ran = cc.staticField("ran", ifc -> ifc.setType(int.class));
+            cc.staticMethod("test", mc -> {
+                mc.returning(int.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    b0.block(b1 -> {
+                        b1.try_(tc -> {
+                            tc.body(b2 -> {
+                                LocalVar y = b2.localVar("y", b2.add(x, 10));
+                                b2.if_(b2.eq(x, 0), b3 -> b3.return_(y));
+                                b2.if_(b2.eq(x, 1), b3 -> b3.break_(b1));
+                                b2.if_(b2.eq(x, 2), b3 -> b3.throw_(IllegalStateException.class));
+                            });
+                            tc.finally_(b2 -> {
+                                b2.inc(ran);
+                                b2.invokeStatic(MethodDesc.of(Thread.class, "onSpinWait", void.class));
+                            });
+                        });
+                        b1.return_(30);
+                    });
+                    b0.return_(20);
+                });
+            });
+            cc.staticMethod("ran", mc -> {
+                mc.returning(int.class);
+                mc.body(b0 -> b0.return_(ran));
+            });
+        });
+        IntUnaryOperator test = tcm.staticMethod(desc, "test", IntUnaryOperator.class);
+        IntSupplier ran = tcm.staticMethod(desc, "ran", IntSupplier.class);
+        assertEquals(10, test.applyAsInt(0));
+        assertEquals(1, ran.getAsInt());
+        assertEquals(20, test.applyAsInt(1));
+        assertEquals(2, ran.getAsInt());
+        assertThrows(IllegalStateException.class, () -> test.applyAsInt(2));
+        assertEquals(3, ran.getAsInt());
+        assertEquals(30, test.applyAsInt(3));
+        assertEquals(4, ran.getAsInt());
+        // only one copy of the finally block
+        assertEquals(1, invokeStaticCount(tcm, desc));
+    }
+
+    @Test
+    public void testPerTryStrategy() {
+        TestClassMaker tcm = TestClassMaker.create();
+        ClassDesc desc = ClassDesc.of("io.quarkus.gizmo2.SharedFinallyPerTry");
+        tcm.gizmo().class_(desc, cc -> {
+            cc.staticMethod("test", mc -> {
+                mc.returning(long.class);
+                ParamVar x = mc.parameter("x", int.class);
+                mc.body(b0 -> {
+                    LocalVar result = b0.localVar("result", Const.of(0L));
+                    b0.try_(tc -> {
+                        tc.body(b1 -> {
+                            b1.if_(b1.eq(x, 0), b2 -> b2.return_(Const.of(-1L)));
+                            b1.set(result, b1.cast(x, long.class));
+                        });
+                        tc.finally_(FinallyStrategy.SHARED, b1 -> {
+                            b1.set(result, b1.mul(result, Const.of(2L)));
+                            b1.invokeStatic(MethodDesc.of(Thread.class, "onSpinWait", void.class));
+                        });
+                    });
+                    b0.return_(result);
+                });
+            });
+        });
+        LongFromInt test = tcm.staticMethod(desc, "test", LongFromInt.class);
+        assertEquals(-1L, test.apply(0));
+        assertEquals(10L, test.apply(5));
+        assertEquals(1, invokeStaticCount(tcm, desc));
+    }
+
+    private static long invokeStaticCount(TestClassMaker tcm, ClassDesc desc) {
+        ClassModel model = tcm.readClass(desc, ClassFile.of()::parse);
+        MethodModel method = model.methods().stream()
+                .filter(m -> m.methodName().equalsString("test"))
+                .findFirst()
+                .orElseThrow();
+        return method.findAttribute(Attributes.code()).orElseThrow().elementStream()
+                .filter(e -> e instanceof Instruction insn && insn.opcode() == Opcode.INVOKESTATIC)
+                .count();
+    }
+
+    @FunctionalInterface
+    public interface LongFromInt {
+        long apply(int x);
+    }
+}
@@ -4,6 +4,9 @@ import static java.lang.constant.ConstantDescs.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntUnaryOperator;
 
 import org.junit.jupiter.api.Test;
@@ -125,6 +128,62 @@ public final class SwitchTest {
         assertEquals('o', frobnicate.applyAsInt('e'));
     }
 
+    @Test
+    public void testClusteredIntSwitch() {
+        testClusteredIntSwitch(SwitchCostModel.DEFAULT);
+        // only gapless clusters of any size
+        testClusteredIntSwitch(SwitchCostModel.of(100, 1));
+        // no cluster is large enough
+        testClusteredIntSwitch(SwitchCostModel.of(40, 100));
+    }
+
+    private void testClusteredIntSwitch(final SwitchCostModel costModel) {
+        TestClassMaker tcm = TestClassMaker.create(Gizmo.create().withSwitchCostModel(costModel));
+        Gizmo g = tcm.gizmo();
+        List<Integer> values = new ArrayList<>();
+        values.add(Integer.valueOf(Integer.MIN_VALUE));
+        values.add(Integer.valueOf(-7000));
+        for (int i = 0; i < 10; i++) {
+            values.add(Integer.valueOf(i));
+        }
+        values.add(Integer.valueOf(500));
+        for (int i = 1000; i < 1040; i += 2) {
+            values.add(Integer.valueOf(i));
+        }
+        values.add(Integer.valueOf(1_000_000));
+        values.add(Integer.valueOf(Integer.MAX_VALUE));
+        ClassDesc desc = g.class_(ClassDesc.of("io.quarkus.gizmo2.TestClusteredIntSwitch"), zc -> {
+            zc.staticMethod("indexOf", mc -> {
+                mc.returning(int.class);
+                ParamVar val = mc.parameter("val", int.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(CD_int, val, sc -> {
+                        for (int i = 0; i < values.size(); i++) {
+                            int index = i;
+                            sc.caseOf(values.get(i).intValue(), b1 -> b1.yield(Const.of(index)));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+        IntUnaryOperator indexOf = tcm.staticMethod(desc, "indexOf", IntUnaryOperator.class);
+        for (int i = 0; i < values.size(); i++) {
+            int value = values.get(i).intValue();
+            assertEquals(i, indexOf.applyAsInt(value));
+            for (int other : new int[] { value - 1, value + 1 }) {
+                assertEquals(values.indexOf(Integer.valueOf(other)), indexOf.applyAsInt(other));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidSwitchCostModel() {
+        assertThrows(IllegalArgumentException.class, () -> SwitchCostModel.of(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> SwitchCostModel.of(101, 4));
+        assertThrows(IllegalArgumentException.class, () -> SwitchCostModel.of(40, 0));
+    }
+
     @Test
     public void testClassSwitch() {
         TestClassMaker tcm = TestClassMaker.create();
@@ -160,6 +219,84 @@ public final class SwitchTest {
         assertEquals("Gosh, I dunno", nameThatClass.nameIt(char.class));
         assertEquals("Gosh, I dunno", nameThatClass.nameIt(Long.class));
         assertEquals("Gosh, I dunno", nameThatClass.nameIt(Class.class));
+        assertThrows(NullPointerException.class, () -> nameThatClass.nameIt(null));
+    }
+
+    @Test
+    public void testLargeClassSwitch() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        List<Class<?>> classes = List.of(String.class, Integer.class, Long.class, Short.class, Byte.class,
+                Character.class, Boolean.class, Float.class, Double.class, Object.class, int[].class, Thread.class);
+        ClassDesc desc = g.class_(ClassDesc.of("io.quarkus.gizmo2.TestLargeClassSwitch"), zc -> {
+            zc.staticMethod("nameThatClass", mc -> {
+                mc.returning(String.class);
+                ParamVar clazz = mc.parameter("clazz", Class.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(CD_String, clazz, sc -> {
+                        for (Class<?> c : classes) {
+                            sc.caseOf(Const.of(c), b1 -> b1.yield(Const.of(c.getSimpleName())));
+                        }
+                        sc.case_(cc -> {
+                            cc.of(int.class);
+                            cc.of(long.class);
+                            cc.body(b1 -> b1.yield(Const.of("primitive")));
+                        });
+                        sc.default_(b1 -> {
+                            b1.yield(Const.of("Gosh, I dunno"));
+                        });
+                    }));
+                });
+            });
+        });
+        ClassNamer nameThatClass = tcm.staticMethod(desc, "nameThatClass", ClassNamer.class);
+        for (Class<?> c : classes) {
+            assertEquals(c.getSimpleName(), nameThatClass.nameIt(c));
+        }
+        assertEquals("primitive", nameThatClass.nameIt(int.class));
+        assertEquals("primitive", nameThatClass.nameIt(long.class));
+        assertEquals("Gosh, I dunno", nameThatClass.nameIt(char.class));
+        assertEquals("Gosh, I dunno", nameThatClass.nameIt(long[].class));
+        assertEquals("Gosh, I dunno", nameThatClass.nameIt(Class.class));
+        assertThrows(NullPointerException.class, () -> nameThatClass.nameIt(null));
+    }
+
+    @Test
+    public void testEnumSwitch() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        ClassDesc desc = g.class_(ClassDesc.of("io.quarkus.gizmo2.TestEnumSwitch"), zc -> {
+            zc.staticMethod("nameThatUnit", mc -> {
+                mc.returning(String.class);
+                ParamVar unit = mc.parameter("unit", TimeUnit.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switchEnum(CD_String, unit, sc -> {
+                        sc.caseOf(TimeUnit.SECONDS, b1 -> b1.yield(Const.of("seconds")));
+                        sc.case_(cc -> {
+                            cc.of(TimeUnit.HOURS);
+                            cc.of(TimeUnit.DAYS);
+                            cc.body(b1 -> b1.yield(Const.of("long")));
+                        });
+                        // a constant which does not exist at run time
+                        sc.caseOf(Const.of(Enum.EnumDesc.of(ClassDesc.of(TimeUnit.class.getName()), "FORTNIGHTS")),
+                                b1 -> b1.yield(Const.of("fortnights")));
+                        sc.default_(b1 -> {
+                            b1.yield(Const.of("short"));
+                        });
+                    }));
+                });
+            });
+        });
+        UnitNamer nameThatUnit = tcm.staticMethod(desc, "nameThatUnit", UnitNamer.class);
+        assertEquals("seconds", nameThatUnit.nameIt(TimeUnit.SECONDS));
+        assertEquals("long", nameThatUnit.nameIt(TimeUnit.HOURS));
+        assertEquals("long", nameThatUnit.nameIt(TimeUnit.DAYS));
+        assertEquals("short", nameThatUnit.nameIt(TimeUnit.NANOSECONDS));
+        assertEquals("short", nameThatUnit.nameIt(TimeUnit.MINUTES));
+    }
+
+    public interface UnitNamer {
+        String nameIt(TimeUnit unit);
     }
 
     public interface ClassNamer {
@@ -193,6 +330,41 @@ public final class SwitchTest {
         assertEquals(-1, nameToNumber.get("four"));
     }
 
+    @Test
+    public void testLargeStringSwitch() {
+        TestClassMaker tcm = TestClassMaker.create();
+        Gizmo g = tcm.gizmo();
+        List<String> names = List.of("Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Age", "Allow",
+                "Authorization", "Cache-Control", "Connection", "Content-Encoding", "Content-Language", "Content-Length",
+                "Content-Location", "Content-Range", "Content-Type", "Cookie", "Date", "ETag", "Expect", "Expires", "From",
+                "Host", "If-Match", "If-Modified-Since", "If-None-Match", "If-Range", "If-Unmodified-Since", "Last-Modified",
+                "Location", "Max-Forwards", "Pragma", "Range", "Referer", "Retry-After", "Server", "Set-Cookie", "TE",
+                "Trailer", "Transfer-Encoding", "Upgrade");
+        ClassDesc desc = g.class_(ClassDesc.of("io.quarkus.gizmo2.TestLargeStringSwitch"), zc -> {
+            zc.staticMethod("nameToNumber", mc -> {
+                mc.returning(int.class);
+                ParamVar name = mc.parameter("name", String.class);
+                mc.body(b0 -> {
+                    b0.return_(b0.switch_(CD_int, name, sc -> {
+                        for (int i = 0; i < names.size(); i++) {
+                            int number = i;
+                            sc.caseOf(names.get(i), b1 -> b1.yield(Const.of(number)));
+                        }
+                        sc.default_(b1 -> b1.yield(Const.of(-1)));
+                    }));
+                });
+            });
+        });
+        NumberParser nameToNumber = tcm.staticMethod(desc, "nameToNumber", NumberParser.class);
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, nameToNumber.get(names.get(i)));
+        }
+        for (String other : List.of("", "A", "Accepted", "accept", "Content-Lengths", "Set-Cookie2", "Upgradd",
+                "If-Unmodified-Since-Or-Later-On")) {
+            assertEquals(-1, nameToNumber.get(other));
+        }
+    }
+
     @Test
     public void testStringSwitchWeird() {
         TestClassMaker tcm = TestClassMaker.create();